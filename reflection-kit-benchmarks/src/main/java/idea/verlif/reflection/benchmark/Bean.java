@@ -0,0 +1,83 @@
+package idea.verlif.reflection.benchmark;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 测试用实体
+ */
+public class Bean {
+
+    private String name;
+    private int age;
+    private long id;
+    private double score;
+    private List<String> tags;
+    private Map<String, List<Integer>> scores;
+
+    public Bean() {
+    }
+
+    public Bean(String name, int age) {
+        this.name = name;
+        this.age = age;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public Map<String, List<Integer>> getScores() {
+        return scores;
+    }
+
+    public void setScores(Map<String, List<Integer>> scores) {
+        this.scores = scores;
+    }
+
+    /**
+     * @return 填充了属性值的实体
+     */
+    public static Bean sample() {
+        Bean bean = new Bean("verlif", 18);
+        bean.id = 100000L;
+        bean.score = 99.5;
+        return bean;
+    }
+}
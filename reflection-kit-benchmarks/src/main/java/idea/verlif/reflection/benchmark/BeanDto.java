@@ -0,0 +1,44 @@
+package idea.verlif.reflection.benchmark;
+
+/**
+ * 测试用传输对象，与{@link Bean}部分属性同名
+ */
+public class BeanDto {
+
+    private String name;
+    private int age;
+    private long id;
+    private double score;
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
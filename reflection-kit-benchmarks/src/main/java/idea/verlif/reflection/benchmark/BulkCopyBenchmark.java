@@ -0,0 +1,54 @@
+package idea.verlif.reflection.benchmark;
+
+import idea.verlif.reflection.util.ObjectUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量拷贝：逐个拷贝、顺序批量拷贝与并行批量拷贝对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkCopyBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Bean> sources;
+
+    @Setup
+    public void setup() {
+        sources = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sources.add(Bean.sample());
+        }
+    }
+
+    @Benchmark
+    public List<BeanDto> copyLoop() {
+        List<BeanDto> targets = new ArrayList<>(sources.size());
+        for (Bean source : sources) {
+            BeanDto target = new BeanDto();
+            ObjectUtil.copy(source, target);
+            targets.add(target);
+        }
+        return targets;
+    }
+
+    @Benchmark
+    public List<BeanDto> copyAllSequential() {
+        return ObjectUtil.copyAll(sources, BeanDto::new, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<BeanDto> copyAllParallel() {
+        return ObjectUtil.copyAll(sources, BeanDto::new, 0);
+    }
+}
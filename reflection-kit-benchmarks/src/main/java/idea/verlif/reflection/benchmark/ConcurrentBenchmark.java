@@ -0,0 +1,83 @@
+package idea.verlif.reflection.benchmark;
+
+import idea.verlif.reflection.domain.ActualClass;
+import idea.verlif.reflection.domain.SFunction;
+import idea.verlif.reflection.util.FieldUtil;
+import idea.verlif.reflection.util.MethodUtil;
+import idea.verlif.reflection.util.ObjectUtil;
+import idea.verlif.reflection.util.ReflectUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程下共享缓存的访问开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentBenchmark {
+
+    private static final SFunction<Bean, String> NAME_GETTER = Bean::getName;
+
+    private Field ageField;
+    private Field reflectAgeField;
+
+    @Setup
+    public void setup() throws Exception {
+        ageField = Bean.class.getDeclaredField("age");
+        reflectAgeField = Bean.class.getDeclaredField("age");
+        reflectAgeField.setAccessible(true);
+    }
+
+    /**
+     * 每个线程独立的读写对象
+     */
+    @State(Scope.Thread)
+    public static class Local {
+
+        private final Bean source = Bean.sample();
+        private final BeanDto target = new BeanDto();
+    }
+
+    @Benchmark
+    public Object getFieldValue(Local local) throws NoSuchFieldException {
+        return FieldUtil.getFieldValue(local.source, ageField);
+    }
+
+    @Benchmark
+    public Object getFieldValueReflection(Local local) throws Exception {
+        return reflectAgeField.get(local.source);
+    }
+
+    @Benchmark
+    public BeanDto copy(Local local) {
+        ObjectUtil.copy(local.source, local.target);
+        return local.target;
+    }
+
+    @Benchmark
+    public Object invokeByName(Local local) throws Exception {
+        return MethodUtil.invoke(local.source, "getName");
+    }
+
+    @Benchmark
+    public Bean newInstance() throws Exception {
+        return ReflectUtil.newInstance(Bean.class);
+    }
+
+    @Benchmark
+    public ActualClass actualClass() throws Exception {
+        return ReflectUtil.getActualClass(Bean.class);
+    }
+
+    @Benchmark
+    public Field lambdaField() {
+        return FieldUtil.getFieldFromLambda(NAME_GETTER);
+    }
+}
@@ -0,0 +1,80 @@
+package idea.verlif.reflection.benchmark;
+
+import idea.verlif.reflection.domain.CopyPlan;
+import idea.verlif.reflection.util.ObjectUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象拷贝：手写拷贝、反射循环与ObjectUtil对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CopyBenchmark {
+
+    private static final String[] NAMES = {"name", "age", "id", "score"};
+
+    private Bean source;
+    private Bean sameTarget;
+    private BeanDto dtoTarget;
+    private Field[] sourceFields;
+    private Field[] dtoFields;
+    private CopyPlan dtoPlan;
+
+    @Setup
+    public void setup() throws Exception {
+        source = Bean.sample();
+        sameTarget = new Bean();
+        dtoTarget = new BeanDto();
+        sourceFields = new Field[NAMES.length];
+        dtoFields = new Field[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            sourceFields[i] = Bean.class.getDeclaredField(NAMES[i]);
+            sourceFields[i].setAccessible(true);
+            dtoFields[i] = BeanDto.class.getDeclaredField(NAMES[i]);
+            dtoFields[i].setAccessible(true);
+        }
+        dtoPlan = ObjectUtil.getCopyPlan(Bean.class, BeanDto.class);
+    }
+
+    @Benchmark
+    public BeanDto copyDirect() {
+        dtoTarget.setName(source.getName());
+        dtoTarget.setAge(source.getAge());
+        dtoTarget.setId(source.getId());
+        dtoTarget.setScore(source.getScore());
+        return dtoTarget;
+    }
+
+    @Benchmark
+    public BeanDto copyReflection() throws IllegalAccessException {
+        for (int i = 0; i < sourceFields.length; i++) {
+            dtoFields[i].set(dtoTarget, sourceFields[i].get(source));
+        }
+        return dtoTarget;
+    }
+
+    @Benchmark
+    public Bean copySameClass() {
+        ObjectUtil.copy(source, sameTarget);
+        return sameTarget;
+    }
+
+    @Benchmark
+    public BeanDto copyToDto() {
+        ObjectUtil.copy(source, dtoTarget);
+        return dtoTarget;
+    }
+
+    @Benchmark
+    public BeanDto copyWithPlan() {
+        dtoPlan.copy(source, dtoTarget);
+        return dtoTarget;
+    }
+}
@@ -0,0 +1,106 @@
+package idea.verlif.reflection.benchmark;
+
+import idea.verlif.reflection.domain.FieldAccessor;
+import idea.verlif.reflection.util.FieldUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 属性读写：直接访问、反射、MethodHandle与FieldUtil对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldAccessBenchmark {
+
+    private Bean bean;
+    private Field ageField;
+    private Field reflectAgeField;
+    private MethodHandle ageGetter;
+    private MethodHandle ageSetter;
+    private FieldAccessor ageAccessor;
+    private int value;
+
+    @Setup
+    public void setup() throws Exception {
+        bean = Bean.sample();
+        ageField = Bean.class.getDeclaredField("age");
+        reflectAgeField = Bean.class.getDeclaredField("age");
+        reflectAgeField.setAccessible(true);
+        ageGetter = MethodHandles.lookup().unreflectGetter(reflectAgeField);
+        ageSetter = MethodHandles.lookup().unreflectSetter(reflectAgeField);
+        ageAccessor = FieldUtil.accessor(ageField);
+    }
+
+    @Benchmark
+    public int getDirect() {
+        return bean.getAge();
+    }
+
+    @Benchmark
+    public Object getReflection() throws IllegalAccessException {
+        return reflectAgeField.get(bean);
+    }
+
+    @Benchmark
+    public int getMethodHandle() throws Throwable {
+        return (int) ageGetter.invokeExact(bean);
+    }
+
+    @Benchmark
+    public Object getFieldUtil() throws NoSuchFieldException {
+        return FieldUtil.getFieldValue(bean, ageField);
+    }
+
+    @Benchmark
+    public Object getFieldUtilByName() throws NoSuchFieldException {
+        return FieldUtil.getFieldValue(bean, "age");
+    }
+
+    @Benchmark
+    public Object getAccessor() {
+        return ageAccessor.get(bean);
+    }
+
+    @Benchmark
+    public int getAccessorInt() {
+        return ageAccessor.getInt(bean);
+    }
+
+    @Benchmark
+    public void setDirect() {
+        bean.setAge(++value);
+    }
+
+    @Benchmark
+    public void setReflection() throws IllegalAccessException {
+        reflectAgeField.set(bean, ++value);
+    }
+
+    @Benchmark
+    public void setMethodHandle() throws Throwable {
+        ageSetter.invokeExact(bean, ++value);
+    }
+
+    @Benchmark
+    public void setFieldUtil() throws NoSuchFieldException {
+        FieldUtil.setFieldValue(bean, ageField, ++value);
+    }
+
+    @Benchmark
+    public void setFieldUtilByName() throws NoSuchFieldException {
+        FieldUtil.setFieldValue(bean, "age", ++value);
+    }
+
+    @Benchmark
+    public void setAccessorInt() {
+        ageAccessor.setInt(bean, ++value);
+    }
+}
@@ -0,0 +1,73 @@
+package idea.verlif.reflection.benchmark;
+
+import idea.verlif.reflection.domain.InstanceFactory;
+import idea.verlif.reflection.util.ReflectUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实例创建：new、Constructor.newInstance与ReflectUtil对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstanceBenchmark {
+
+    private Constructor<Bean> noArgs;
+    private Constructor<Bean> withArgs;
+    private InstanceFactory<Bean> noArgsFactory;
+    private InstanceFactory<Bean> withArgsFactory;
+
+    @Setup
+    public void setup() throws Exception {
+        noArgs = Bean.class.getConstructor();
+        withArgs = Bean.class.getConstructor(String.class, int.class);
+        noArgsFactory = ReflectUtil.factory(Bean.class);
+        withArgsFactory = ReflectUtil.factory(Bean.class, String.class, int.class);
+    }
+
+    @Benchmark
+    public Bean newDirect() {
+        return new Bean();
+    }
+
+    @Benchmark
+    public Bean newReflection() throws Exception {
+        return noArgs.newInstance();
+    }
+
+    @Benchmark
+    public Bean newInstance() throws Exception {
+        return ReflectUtil.newInstance(Bean.class);
+    }
+
+    @Benchmark
+    public Bean newFactory() {
+        return noArgsFactory.get();
+    }
+
+    @Benchmark
+    public Bean newDirectWithArgs() {
+        return new Bean("verlif", 18);
+    }
+
+    @Benchmark
+    public Bean newReflectionWithArgs() throws Exception {
+        return withArgs.newInstance("verlif", 18);
+    }
+
+    @Benchmark
+    public Bean newInstanceWithArgs() throws Exception {
+        return ReflectUtil.newInstance(Bean.class, "verlif", 18);
+    }
+
+    @Benchmark
+    public Bean newFactoryWithArgs() throws Exception {
+        return withArgsFactory.newInstance("verlif", 18);
+    }
+}
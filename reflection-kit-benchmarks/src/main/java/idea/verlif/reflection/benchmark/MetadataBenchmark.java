@@ -0,0 +1,104 @@
+package idea.verlif.reflection.benchmark;
+
+import idea.verlif.reflection.domain.ActualClass;
+import idea.verlif.reflection.domain.ClassGrc;
+import idea.verlif.reflection.domain.FieldGrc;
+import idea.verlif.reflection.domain.SFunction;
+import idea.verlif.reflection.util.FieldUtil;
+import idea.verlif.reflection.util.MethodUtil;
+import idea.verlif.reflection.util.ReflectUtil;
+import idea.verlif.reflection.util.SignatureUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 元数据解析：类信息、Lambda解析与签名解析，与直接反射对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetadataBenchmark {
+
+    private static final SFunction<Bean, String> NAME_GETTER = Bean::getName;
+
+    private static final String SIGNATURE = "Ljava/util/Map<Ljava/lang/String;Ljava/util/List<Ljava/lang/Integer;>;>;";
+
+    private final Map<String, ClassGrc> genericsMap = Collections.emptyMap();
+
+    private Field scoresField;
+
+    @Setup
+    public void setup() throws Exception {
+        scoresField = Bean.class.getDeclaredField("scores");
+    }
+
+    @Benchmark
+    public Field[] declaredFieldsReflection() {
+        return Bean.class.getDeclaredFields();
+    }
+
+    @Benchmark
+    public List<Field> allFields() {
+        return FieldUtil.getAllFields(Bean.class);
+    }
+
+    @Benchmark
+    public Field getFieldByName() {
+        return FieldUtil.getField(Bean.class, "score");
+    }
+
+    @Benchmark
+    public ActualClass actualClass() throws Exception {
+        return ReflectUtil.getActualClass(Bean.class);
+    }
+
+    @Benchmark
+    public FieldGrc actualClassField() throws Exception {
+        return ReflectUtil.getActualClass(Bean.class).getFieldGrc("scores");
+    }
+
+    @Benchmark
+    public FieldGrc fieldGrc() throws Exception {
+        return FieldUtil.getFieldGrc(scoresField);
+    }
+
+    @Benchmark
+    public Type genericTypeReflection() {
+        return scoresField.getGenericType();
+    }
+
+    @Benchmark
+    public Field lambdaField() {
+        return FieldUtil.getFieldFromLambda(NAME_GETTER);
+    }
+
+    @Benchmark
+    public Method lambdaMethod() {
+        return MethodUtil.getMethodFromLambda(NAME_GETTER);
+    }
+
+    @Benchmark
+    public Field lambdaFieldDirect() throws NoSuchFieldException {
+        return Bean.class.getDeclaredField("name");
+    }
+
+    @Benchmark
+    public ClassGrc parseSignature() throws ClassNotFoundException {
+        return SignatureUtil.parseClassBySignature(SIGNATURE, genericsMap);
+    }
+
+    @Benchmark
+    public List<String> splitSignature() {
+        return SignatureUtil.splitSignature("Ljava/lang/String;ITT;[JLjava/util/List<*>;");
+    }
+}
@@ -0,0 +1,92 @@
+package idea.verlif.reflection.benchmark;
+
+import idea.verlif.reflection.domain.MethodInvoker;
+import idea.verlif.reflection.util.MethodUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法查找与执行：直接调用、Method.invoke、MethodHandle与MethodUtil对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MethodBenchmark {
+
+    private Bean bean;
+    private Method getName;
+    private Method setAge;
+    private MethodHandle getNameHandle;
+    private MethodInvoker getNameInvoker;
+
+    @Setup
+    public void setup() throws Exception {
+        bean = Bean.sample();
+        getName = Bean.class.getMethod("getName");
+        setAge = Bean.class.getMethod("setAge", int.class);
+        getNameHandle = MethodHandles.lookup().unreflect(getName);
+        getNameInvoker = MethodUtil.invoker(getName);
+    }
+
+    @Benchmark
+    public Method getMethodReflection() throws NoSuchMethodException {
+        return Bean.class.getMethod("setAge", int.class);
+    }
+
+    @Benchmark
+    public Method getMethodUtil() {
+        return MethodUtil.getMethod(Bean.class, "setAge", int.class);
+    }
+
+    @Benchmark
+    public Method getMethodBoxedArgument() {
+        return MethodUtil.getMethod(Bean.class, "setAge", Integer.class);
+    }
+
+    @Benchmark
+    public String invokeDirect() {
+        return bean.getName();
+    }
+
+    @Benchmark
+    public Object invokeReflection() throws Exception {
+        return getName.invoke(bean);
+    }
+
+    @Benchmark
+    public String invokeMethodHandle() throws Throwable {
+        return (String) getNameHandle.invokeExact(bean);
+    }
+
+    @Benchmark
+    public Object invokeMethodUtil() throws Exception {
+        return MethodUtil.invoke(bean, getName);
+    }
+
+    @Benchmark
+    public Object invokeInvoker() throws Exception {
+        return getNameInvoker.invoke(bean);
+    }
+
+    @Benchmark
+    public Object invokeByName() throws Exception {
+        return MethodUtil.invoke(bean, "getName");
+    }
+
+    @Benchmark
+    public Object invokeByNameWithArgument() throws Exception {
+        return MethodUtil.invoke(bean, "setAge", 18);
+    }
+
+    @Benchmark
+    public Object invokeSetterReflection() throws Exception {
+        return setAge.invoke(bean, 18);
+    }
+}
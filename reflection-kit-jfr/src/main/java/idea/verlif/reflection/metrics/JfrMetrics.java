@@ -0,0 +1,115 @@
+package idea.verlif.reflection.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR事件指标。将解析、缓存与拷贝计划构建记录为JFR事件，未开启记录时事件不会提交。<br/>
+ * 缓存事件数量较多，默认关闭，需要在JFR配置中开启idea.verlif.reflection.Cache事件。
+ * 需要运行在支持JFR的JVM上（JDK 11及以上或8u262及以上）。模块已在服务文件中注册本实现，加入类路径后会被自动安装。
+ *
+ * @author Verlif
+ */
+public class JfrMetrics implements ReflectionMetrics {
+
+    @Override
+    public void resolved(Resolution resolution, Class<?> target, long nanos) {
+        ResolutionEvent event = new ResolutionEvent();
+        if (event.isEnabled()) {
+            event.resolution = resolution.name();
+            event.targetClass = target;
+            event.resolveTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void cacheHit(CacheRegion region, Class<?> target) {
+        cache(region, target, "HIT");
+    }
+
+    @Override
+    public void cacheMiss(CacheRegion region, Class<?> target) {
+        cache(region, target, "MISS");
+    }
+
+    @Override
+    public void cacheEvicted(CacheRegion region, Class<?> target) {
+        cache(region, target, "EVICTED");
+    }
+
+    private static void cache(CacheRegion region, Class<?> target, String result) {
+        CacheEvent event = new CacheEvent();
+        if (event.isEnabled()) {
+            event.region = region.name();
+            event.result = result;
+            event.targetClass = target;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void copyPlanBuilt(Class<?> sourceClass, Class<?> targetClass, int size, long nanos) {
+        CopyPlanEvent event = new CopyPlanEvent();
+        if (event.isEnabled()) {
+            event.sourceClass = sourceClass;
+            event.targetClass = targetClass;
+            event.size = size;
+            event.buildTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Name("idea.verlif.reflection.Resolution")
+    @Label("Reflection Resolution")
+    @Category("Reflection Kit")
+    @StackTrace(false)
+    static class ResolutionEvent extends Event {
+
+        @Label("Resolution")
+        String resolution;
+
+        @Label("Target Class")
+        Class<?> targetClass;
+
+        @Label("Resolve Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long resolveTime;
+    }
+
+    @Name("idea.verlif.reflection.Cache")
+    @Label("Reflection Cache")
+    @Category("Reflection Kit")
+    @Enabled(false)
+    @StackTrace(false)
+    static class CacheEvent extends Event {
+
+        @Label("Region")
+        String region;
+
+        @Label("Result")
+        String result;
+
+        @Label("Target Class")
+        Class<?> targetClass;
+    }
+
+    @Name("idea.verlif.reflection.CopyPlan")
+    @Label("Copy Plan Build")
+    @Category("Reflection Kit")
+    @StackTrace(false)
+    static class CopyPlanEvent extends Event {
+
+        @Label("Source Class")
+        Class<?> sourceClass;
+
+        @Label("Target Class")
+        Class<?> targetClass;
+
+        @Label("Field Count")
+        int size;
+
+        @Label("Build Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long buildTime;
+    }
+}
@@ -0,0 +1,17 @@
+package idea.verlif.reflection.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记需要在编译期生成元数据表的类。<br/>
+ * 将reflection-kit的processor分类包加入注解处理器路径（annotationProcessorPaths）后，
+ * 编译时会为标记的类生成{@link idea.verlif.reflection.domain.ClassMetadata}实现，
+ * 工具类在运行时使用生成的表，减少首次使用时的反射解析。未配置注解处理器时标记不生效，仍然通过反射解析。
+ *
+ * @author Verlif
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Reflective {
+}
@@ -1,5 +1,7 @@
 package idea.verlif.reflection.domain;
 
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,7 +17,7 @@ public class ActualClass {
     private final Map<String, MethodGrc> methodGrcMap;
 
     public ActualClass() {
-        this(new ClassGrc());
+        this(ClassGrc.of(Object.class));
     }
 
     public ActualClass(ClassGrc target) {
@@ -23,7 +25,7 @@ public class ActualClass {
     }
 
     public ActualClass(Class<?> target, Map<String, FieldGrc> fieldGrcMap, Map<String, MethodGrc> methodGrcMap) {
-        this.target = new ClassGrc(target);
+        this.target = ClassGrc.of(target);
         this.fieldGrcMap = fieldGrcMap;
         this.methodGrcMap = methodGrcMap;
     }
@@ -38,14 +40,64 @@ public class ActualClass {
         return target;
     }
 
+    /**
+     * @return 属性泛型信息表，键为属性名
+     */
     public Map<String, FieldGrc> getFieldGrcMap() {
         return fieldGrcMap;
     }
 
+    /**
+     * @return 方法泛型信息表，键为{@link #methodKey(String, Class[])}
+     */
     public Map<String, MethodGrc> getMethodGrcMap() {
         return methodGrcMap;
     }
 
+    /**
+     * 获取属性泛型信息
+     *
+     * @param name 属性名
+     * @return 属性泛型信息，不存在时返回null
+     */
+    public FieldGrc getFieldGrc(String name) {
+        return fieldGrcMap.get(name);
+    }
+
+    /**
+     * 获取方法泛型信息
+     *
+     * @param name       方法名
+     * @param paramTypes 方法参数类型
+     * @return 方法泛型信息，不存在时返回null
+     */
+    public MethodGrc getMethodGrc(String name, Class<?>... paramTypes) {
+        return methodGrcMap.get(methodKey(name, paramTypes));
+    }
+
+    /**
+     * 获取方法在方法泛型信息表中的键，由方法名与擦除后的参数描述组成，例如"setName(Ljava/lang/String;)"
+     *
+     * @param method 目标方法
+     * @return 方法键
+     */
+    public static String methodKey(Method method) {
+        return methodKey(method.getName(), method.getParameterTypes());
+    }
+
+    /**
+     * 获取方法在方法泛型信息表中的键，由方法名与擦除后的参数描述组成，例如"setName(Ljava/lang/String;)"
+     *
+     * @param name       方法名
+     * @param paramTypes 方法参数类型
+     * @return 方法键
+     */
+    public static String methodKey(String name, Class<?>... paramTypes) {
+        String descriptor = MethodType.methodType(void.class, paramTypes).toMethodDescriptorString();
+        // 去除末尾的返回值描述
+        return name + descriptor.substring(0, descriptor.length() - 1);
+    }
+
     @Override
     public String toString() {
         return "ActualClass{" +
@@ -0,0 +1,221 @@
+package idea.verlif.reflection.domain;
+
+import java.util.*;
+
+/**
+ * 对象的映射表视图。键为对象的非静态属性名，读写直接作用于对象属性，不复制属性值。<br/>
+ * 键集合固定，不支持新增或删除键。
+ *
+ * @author Verlif
+ */
+public final class BeanMap extends AbstractMap<String, Object> {
+
+    /**
+     * 目标对象
+     */
+    private final Object bean;
+
+    /**
+     * 目标类的键表
+     */
+    private final KeyTable table;
+
+    private EntrySet entrySet;
+
+    public BeanMap(Object bean, KeyTable table) {
+        this.bean = bean;
+        this.table = table;
+    }
+
+    /**
+     * @return 目标对象
+     */
+    public Object getBean() {
+        return bean;
+    }
+
+    @Override
+    public int size() {
+        return table.keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return table.indexOf(key) != -1;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = table.indexOf(key);
+        return index == -1 ? null : table.accessors[index].get(bean);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = table.indexOf(key);
+        if (index == -1) {
+            throw new IllegalArgumentException("No such field - " + key);
+        }
+        FieldAccessor accessor = table.accessors[index];
+        Object old = accessor.get(bean);
+        accessor.set(bean, value);
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return table.keySet;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        EntrySet es = entrySet;
+        if (es == null) {
+            entrySet = es = new EntrySet();
+        }
+        return es;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new Iterator<Entry<String, Object>>() {
+
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < table.keys.length;
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (index >= table.keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return new BeanEntry(index++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return table.keys.length;
+        }
+    }
+
+    /**
+     * 属性条目，值在读取时才从对象中获取
+     */
+    private final class BeanEntry implements Entry<String, Object> {
+
+        private final int index;
+
+        BeanEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return table.keys[index];
+        }
+
+        @Override
+        public Object getValue() {
+            return table.accessors[index].get(bean);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            FieldAccessor accessor = table.accessors[index];
+            Object old = accessor.get(bean);
+            accessor.set(bean, value);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * 类的键表，同一个类的所有映射表视图共享
+     */
+    public static final class KeyTable {
+
+        /**
+         * 属性名，按顺序排列
+         */
+        private final String[] keys;
+
+        /**
+         * 属性访问器，与属性名一一对应
+         */
+        private final FieldAccessor[] accessors;
+
+        /**
+         * 属性名与序号的对应表
+         */
+        private final Map<String, Integer> indexes;
+
+        /**
+         * 不可修改的有序键集合
+         */
+        private final Set<String> keySet;
+
+        public KeyTable(String[] keys, FieldAccessor[] accessors) {
+            if (keys.length != accessors.length) {
+                throw new IllegalArgumentException("Key count mismatch - " + keys.length + " : " + accessors.length);
+            }
+            this.keys = keys.clone();
+            this.accessors = accessors.clone();
+            this.indexes = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                indexes.put(keys[i], i);
+            }
+            this.keySet = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(keys)));
+        }
+
+        /**
+         * @param key 属性名
+         * @return 属性序号，不存在时返回-1
+         */
+        public int indexOf(Object key) {
+            Integer index = indexes.get(key);
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * @return 键的数量
+         */
+        public int size() {
+            return keys.length;
+        }
+    }
+}
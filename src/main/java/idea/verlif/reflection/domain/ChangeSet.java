@@ -0,0 +1,125 @@
+package idea.verlif.reflection.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 属性变化集合。以位集合记录变化的属性序号，只保存变化属性的新旧值。
+ *
+ * @author Verlif
+ */
+public final class ChangeSet {
+
+    /**
+     * 生成变化集合的比较计划
+     */
+    private final ComparePlan plan;
+
+    /**
+     * 变化的属性序号
+     */
+    private final BitSet changed;
+
+    /**
+     * 变化属性的旧值，按属性序号顺序排列
+     */
+    private final Object[] oldValues;
+
+    /**
+     * 变化属性的新值，按属性序号顺序排列
+     */
+    private final Object[] newValues;
+
+    /**
+     * 以属性序号为下标的变化属性在值数组中的位置，未变化的属性为-1
+     */
+    private final int[] ranks;
+
+    public ChangeSet(ComparePlan plan, BitSet changed, Object[] oldValues, Object[] newValues) {
+        this.plan = plan;
+        this.changed = changed;
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+        this.ranks = new int[changed.length()];
+        Arrays.fill(ranks, -1);
+        int rank = 0;
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            ranks[i] = rank++;
+        }
+    }
+
+    public ComparePlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return 是否没有变化的属性
+     */
+    public boolean isEmpty() {
+        return oldValues.length == 0;
+    }
+
+    /**
+     * @return 变化的属性数量
+     */
+    public int size() {
+        return oldValues.length;
+    }
+
+    /**
+     * @return 变化的属性序号的副本，序号与{@link ComparePlan#getName(int)}对应
+     */
+    public BitSet getChanged() {
+        return (BitSet) changed.clone();
+    }
+
+    /**
+     * @param index 属性序号
+     * @return 属性是否变化
+     */
+    public boolean isChanged(int index) {
+        return changed.get(index);
+    }
+
+    /**
+     * @return 变化的属性名，按属性序号顺序排列
+     */
+    public List<String> getChangedNames() {
+        List<String> list = new ArrayList<>(oldValues.length);
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            list.add(plan.getName(i));
+        }
+        return list;
+    }
+
+    /**
+     * @param index 属性序号
+     * @return 属性的旧值，属性未变化时返回null
+     */
+    public Object getOldValue(int index) {
+        return changed.get(index) ? oldValues[ranks[index]] : null;
+    }
+
+    /**
+     * @param index 属性序号
+     * @return 属性的新值，属性未变化时返回null
+     */
+    public Object getNewValue(int index) {
+        return changed.get(index) ? newValues[ranks[index]] : null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ChangeSet{");
+        int j = 0;
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1), j++) {
+            if (j > 0) {
+                sb.append(", ");
+            }
+            sb.append(plan.getName(i)).append(": ").append(oldValues[j]).append(" -> ").append(newValues[j]);
+        }
+        return sb.append('}').toString();
+    }
+}
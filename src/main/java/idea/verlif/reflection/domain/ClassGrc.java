@@ -1,12 +1,34 @@
 package idea.verlif.reflection.domain;
 
+import idea.verlif.reflection.metrics.CacheRegion;
+import idea.verlif.reflection.metrics.ReflectionMetrics;
+import idea.verlif.reflection.util.MetricsUtil;
+
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
- * 类泛型信息
+ * 类泛型信息。对象不可变，相同结构的对象相等，可通过{@link #of(Class, ClassGrc...)}获取共享实例。
  */
 public class ClassGrc {
 
+    /**
+     * 共享的空泛型数组
+     */
+    public static final ClassGrc[] EMPTY_GENERICS = new ClassGrc[0];
+
+    /**
+     * 共享实例表的分段数量，必须是2的幂
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * 按结构哈希值分段的共享实例表，键与值都为弱引用，不会阻止类的卸载。每段单独加锁，减少并发解析时的锁竞争
+     */
+    private static final Map<ClassGrc, WeakReference<ClassGrc>>[] INTERNED = newStripes();
+
     /**
      * 目标类型
      */
@@ -17,25 +39,138 @@ public class ClassGrc {
      */
     private final ClassGrc[] genericsInfos;
 
+    /**
+     * 结构哈希值
+     */
+    private final int hash;
+
     public ClassGrc(Class<?> target, ClassGrc[] genericsInfos) {
         this.target = target;
-        this.genericsInfos = genericsInfos;
+        this.genericsInfos = genericsInfos == null || genericsInfos.length == 0 ? EMPTY_GENERICS : genericsInfos.clone();
+        this.hash = 31 * target.hashCode() + Arrays.hashCode(this.genericsInfos);
     }
 
     public ClassGrc(Class<?> target) {
-        this(target, new ClassGrc[0]);
+        this(target, EMPTY_GENERICS);
     }
 
     public ClassGrc() {
-        this(Object.class, new ClassGrc[0]);
+        this(Object.class, EMPTY_GENERICS);
+    }
+
+    /**
+     * 复制类泛型信息，与源对象共享泛型数组
+     *
+     * @param source 源类泛型信息
+     */
+    protected ClassGrc(ClassGrc source) {
+        this.target = source.target;
+        this.genericsInfos = source.genericsInfos;
+        this.hash = source.hash;
+    }
+
+    /**
+     * 获取共享的类泛型信息实例，相同结构的泛型信息会返回同一对象
+     *
+     * @param target        目标类型
+     * @param genericsInfos 目标类型包括的泛型
+     * @return 共享实例
+     */
+    public static ClassGrc of(Class<?> target, ClassGrc... genericsInfos) {
+        if (genericsInfos != null && genericsInfos.length > 0) {
+            ClassGrc[] interned = new ClassGrc[genericsInfos.length];
+            for (int i = 0; i < genericsInfos.length; i++) {
+                ClassGrc info = genericsInfos[i];
+                interned[i] = info == null || info.getClass() != ClassGrc.class ? info : info.intern();
+            }
+            genericsInfos = interned;
+        }
+        return new ClassGrc(target, genericsInfos).intern();
+    }
+
+    /**
+     * 获取与当前对象结构相同的共享实例
+     *
+     * @return 共享实例
+     */
+    public ClassGrc intern() {
+        Map<ClassGrc, WeakReference<ClassGrc>> stripe = INTERNED[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        WeakReference<ClassGrc> ref;
+        ClassGrc interned;
+        synchronized (stripe) {
+            ref = stripe.get(this);
+            interned = ref == null ? null : ref.get();
+            if (interned == null) {
+                stripe.put(this, new WeakReference<>(this));
+            }
+        }
+        boolean found = interned != null;
+        // 指标回调在锁外执行
+        if (MetricsUtil.isEnabled()) {
+            ReflectionMetrics metrics = MetricsUtil.getMetrics();
+            if (found) {
+                metrics.cacheHit(CacheRegion.CLASS_GRC, target);
+            } else {
+                // 共享实例已被回收但条目尚未清理
+                if (ref != null) {
+                    metrics.cacheEvicted(CacheRegion.CLASS_GRC, target);
+                }
+                metrics.cacheMiss(CacheRegion.CLASS_GRC, target);
+            }
+        }
+        return found ? interned : this;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<ClassGrc, WeakReference<ClassGrc>>[] newStripes() {
+        Map<ClassGrc, WeakReference<ClassGrc>>[] stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new WeakHashMap<>();
+        }
+        return stripes;
     }
 
     public Class<?> getTarget() {
         return target;
     }
 
+    /**
+     * @return 目标类型包括的泛型的副本
+     */
     public ClassGrc[] getGenericsInfos() {
-        return genericsInfos;
+        return genericsInfos.length == 0 ? EMPTY_GENERICS : genericsInfos.clone();
+    }
+
+    /**
+     * @return 目标类型包括的泛型数量
+     */
+    public int getGenericsCount() {
+        return genericsInfos.length;
+    }
+
+    /**
+     * @param index 泛型序号
+     * @return 目标类型包括的泛型
+     */
+    public ClassGrc getGenericsInfo(int index) {
+        return genericsInfos[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ClassGrc classGrc = (ClassGrc) o;
+        return hash == classGrc.hash && target == classGrc.target && Arrays.equals(genericsInfos, classGrc.genericsInfos);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     @Override
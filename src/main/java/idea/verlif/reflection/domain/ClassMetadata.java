@@ -0,0 +1,256 @@
+package idea.verlif.reflection.domain;
+
+import idea.verlif.reflection.util.ReflectUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 编译期生成的类元数据表。由注解处理器为标记了Reflective的类生成，类名为目标类的二进制名加上{@link #SUFFIX}。<br/>
+ * 生成的表只能直接访问同包可见的属性，私有属性的读写与拷贝仍然经过反射。
+ *
+ * @author Verlif
+ */
+public abstract class ClassMetadata {
+
+    /**
+     * 生成类的类名后缀
+     */
+    public static final String SUFFIX = "$$ReflectionMetadata";
+
+    private static final ClassGrc OBJECT_CLASS_GRC = ClassGrc.of(Object.class);
+
+    /**
+     * 目标类
+     */
+    private final Class<?> target;
+
+    /**
+     * 目标类声明的属性名，按声明顺序排列
+     */
+    private final String[] fieldNames;
+
+    /**
+     * 属性名与序号的对应表
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * 属性是否可直接读取
+     */
+    private final boolean[] readable;
+
+    /**
+     * 属性是否可直接写入
+     */
+    private final boolean[] writable;
+
+    protected ClassMetadata(Class<?> target, String[] fieldNames, boolean[] readable, boolean[] writable) {
+        this.target = target;
+        this.fieldNames = fieldNames;
+        this.readable = readable;
+        this.writable = writable;
+        this.indexes = new HashMap<>(fieldNames.length * 2);
+        for (int i = 0; i < fieldNames.length; i++) {
+            indexes.put(fieldNames[i], i);
+        }
+    }
+
+    public Class<?> getTarget() {
+        return target;
+    }
+
+    /**
+     * @return 目标类声明的属性名的副本
+     */
+    public String[] getFieldNames() {
+        return fieldNames.clone();
+    }
+
+    /**
+     * 获取属性序号
+     *
+     * @param fieldName 属性名
+     * @return 属性序号，不存在时返回-1
+     */
+    public int indexOf(String fieldName) {
+        Integer index = indexes.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index 属性序号
+     * @return 属性是否可通过{@link #get(Object, int)}直接读取
+     */
+    public boolean isReadable(int index) {
+        return readable[index];
+    }
+
+    /**
+     * @param index 属性序号
+     * @return 属性是否可通过{@link #set(Object, int, Object)}直接写入
+     */
+    public boolean isWritable(int index) {
+        return writable[index];
+    }
+
+    /**
+     * 获取属性的泛型信息
+     *
+     * @param index       属性序号
+     * @param genericsMap 目标类的泛型表
+     * @return 属性的泛型信息，无法在编译期确定时返回null
+     */
+    public abstract ClassGrc getFieldGrc(int index, Map<String, ClassGrc> genericsMap);
+
+    /**
+     * 获取方法的泛型信息
+     *
+     * @param methodKey   方法键，见{@link ActualClass#methodKey(String, Class[])}
+     * @param genericsMap 目标类的泛型表
+     * @return 数组首位为返回值（void时为null），其后为参数；无法在编译期确定时返回null
+     */
+    public abstract ClassGrc[] getMethodGrc(String methodKey, Map<String, ClassGrc> genericsMap);
+
+    /**
+     * 直接读取属性值
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param index  属性序号，属性需可读
+     * @return 属性值
+     */
+    public abstract Object get(Object target, int index);
+
+    /**
+     * 直接写入属性值。基础类型属性与{@link FieldAccessor#set(Object, Object)}相同，接受可宽化转换的包装类型值，
+     * 值为null或类型不匹配时抛出{@link IllegalArgumentException}。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param index  属性序号，属性需可写
+     * @param value  属性值
+     */
+    public abstract void set(Object target, int index, Object value);
+
+    /**
+     * 直接拷贝目标类及其父类的所有非静态属性
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     * @return 是否完成拷贝。存在不可直接访问的属性时不进行任何拷贝并返回false
+     */
+    public abstract boolean copy(Object source, Object target);
+
+    /**
+     * 从泛型表中获取泛型变量对应的类型，生成代码使用
+     *
+     * @param genericsMap 泛型表
+     * @param name        泛型变量名
+     * @return 泛型变量对应的类型，不存在时为Object
+     */
+    protected static ClassGrc variable(Map<String, ClassGrc> genericsMap, String name) {
+        ClassGrc classGrc = genericsMap.get(name);
+        return classGrc == null ? OBJECT_CLASS_GRC : classGrc;
+    }
+
+    /**
+     * 将值转换为boolean属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static boolean booleanValue(Object value) {
+        return (Boolean) primitive(boolean.class, value);
+    }
+
+    /**
+     * 将值转换为byte属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static byte byteValue(Object value) {
+        return ((Number) primitive(byte.class, value)).byteValue();
+    }
+
+    /**
+     * 将值转换为char属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static char charValue(Object value) {
+        return (Character) primitive(char.class, value);
+    }
+
+    /**
+     * 将值宽化转换为short属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static short shortValue(Object value) {
+        return ((Number) primitive(short.class, value)).shortValue();
+    }
+
+    /**
+     * 将值宽化转换为int属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static int intValue(Object value) {
+        return number(int.class, value).intValue();
+    }
+
+    /**
+     * 将值宽化转换为long属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static long longValue(Object value) {
+        return number(long.class, value).longValue();
+    }
+
+    /**
+     * 将值宽化转换为float属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static float floatValue(Object value) {
+        return number(float.class, value).floatValue();
+    }
+
+    /**
+     * 将值宽化转换为double属性值，生成代码使用
+     *
+     * @param value 属性值
+     * @return 拆箱后的值
+     */
+    protected static double doubleValue(Object value) {
+        return number(double.class, value).doubleValue();
+    }
+
+    /**
+     * 检查值能否赋给基础类型属性，char值转换为对应的数值
+     */
+    private static Number number(Class<?> type, Object value) {
+        Object checked = primitive(type, value);
+        return checked instanceof Character ? (int) (Character) checked : (Number) checked;
+    }
+
+    private static Object primitive(Class<?> type, Object value) {
+        if (value == null || !ReflectUtil.isAssignable(type, value.getClass())) {
+            throw new IllegalArgumentException("Can not set " + type + " field to " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassMetadata{" +
+                "target=" + target +
+                '}';
+    }
+}
@@ -0,0 +1,239 @@
+package idea.verlif.reflection.domain;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * 属性比较计划。保存类的非静态属性访问器，按属性比较、计算哈希值或找出变化的属性。
+ * 基础类型属性直接读取比较，不进行装箱；数组属性按内容比较。
+ *
+ * @author Verlif
+ */
+public final class ComparePlan {
+
+    private static final byte REFERENCE = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte BYTE = 2;
+    private static final byte CHAR = 3;
+    private static final byte SHORT = 4;
+    private static final byte INT = 5;
+    private static final byte LONG = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte ARRAY = 9;
+
+    /**
+     * 目标类
+     */
+    private final Class<?> target;
+
+    /**
+     * 属性访问器
+     */
+    private final FieldAccessor[] accessors;
+
+    /**
+     * 属性名，与属性访问器一一对应
+     */
+    private final String[] names;
+
+    /**
+     * 比较方式
+     */
+    private final byte[] kinds;
+
+    public ComparePlan(Class<?> target, FieldAccessor[] accessors) {
+        this.target = target;
+        this.accessors = accessors;
+        this.names = new String[accessors.length];
+        this.kinds = new byte[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            Class<?> type = accessors[i].getField().getType();
+            names[i] = accessors[i].getField().getName();
+            kinds[i] = kindOf(type);
+        }
+    }
+
+    public Class<?> getTarget() {
+        return target;
+    }
+
+    /**
+     * @return 比较的属性数量
+     */
+    public int size() {
+        return accessors.length;
+    }
+
+    /**
+     * @param index 属性序号
+     * @return 属性名
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * 按属性比较两个对象
+     *
+     * @param a 对象a，需为目标类的实例
+     * @param b 对象b，需为目标类的实例
+     * @return 所有属性是否都相等
+     */
+    public boolean equals(Object a, Object b) {
+        for (int i = 0; i < accessors.length; i++) {
+            if (!fieldEquals(i, a, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按属性计算哈希值，与将属性值依次装箱后计算Arrays.deepHashCode的结果一致
+     *
+     * @param o 目标对象，需为目标类的实例
+     * @return 哈希值
+     */
+    public int hash(Object o) {
+        int result = 1;
+        for (int i = 0; i < accessors.length; i++) {
+            result = 31 * result + fieldHash(i, o);
+        }
+        return result;
+    }
+
+    /**
+     * 找出两个对象之间值不同的属性
+     *
+     * @param a 旧对象，需为目标类的实例
+     * @param b 新对象，需为目标类的实例
+     * @return 变化集合
+     */
+    public ChangeSet diff(Object a, Object b) {
+        BitSet changed = new BitSet(accessors.length);
+        for (int i = 0; i < accessors.length; i++) {
+            if (!fieldEquals(i, a, b)) {
+                changed.set(i);
+            }
+        }
+        int count = changed.cardinality();
+        Object[] oldValues = new Object[count];
+        Object[] newValues = new Object[count];
+        // 只有变化的属性会读取属性值
+        for (int i = changed.nextSetBit(0), j = 0; i >= 0; i = changed.nextSetBit(i + 1), j++) {
+            oldValues[j] = accessors[i].get(a);
+            newValues[j] = accessors[i].get(b);
+        }
+        return new ChangeSet(this, changed, oldValues, newValues);
+    }
+
+    private boolean fieldEquals(int i, Object a, Object b) {
+        FieldAccessor accessor = accessors[i];
+        switch (kinds[i]) {
+            case BOOLEAN:
+                return accessor.getBoolean(a) == accessor.getBoolean(b);
+            case BYTE:
+                return accessor.getByte(a) == accessor.getByte(b);
+            case CHAR:
+                return accessor.getChar(a) == accessor.getChar(b);
+            case SHORT:
+                return accessor.getShort(a) == accessor.getShort(b);
+            case INT:
+                return accessor.getInt(a) == accessor.getInt(b);
+            case LONG:
+                return accessor.getLong(a) == accessor.getLong(b);
+            case FLOAT:
+                // 与Float.equals一致，NaN与自身相等，0.0与-0.0不相等
+                return Float.floatToIntBits(accessor.getFloat(a)) == Float.floatToIntBits(accessor.getFloat(b));
+            case DOUBLE:
+                return Double.doubleToLongBits(accessor.getDouble(a)) == Double.doubleToLongBits(accessor.getDouble(b));
+            case ARRAY:
+                return Objects.deepEquals(accessor.get(a), accessor.get(b));
+            default:
+                return Objects.equals(accessor.get(a), accessor.get(b));
+        }
+    }
+
+    private int fieldHash(int i, Object o) {
+        FieldAccessor accessor = accessors[i];
+        switch (kinds[i]) {
+            case BOOLEAN:
+                return Boolean.hashCode(accessor.getBoolean(o));
+            case BYTE:
+                return Byte.hashCode(accessor.getByte(o));
+            case CHAR:
+                return Character.hashCode(accessor.getChar(o));
+            case SHORT:
+                return Short.hashCode(accessor.getShort(o));
+            case INT:
+                return Integer.hashCode(accessor.getInt(o));
+            case LONG:
+                return Long.hashCode(accessor.getLong(o));
+            case FLOAT:
+                return Float.hashCode(accessor.getFloat(o));
+            case DOUBLE:
+                return Double.hashCode(accessor.getDouble(o));
+            case ARRAY:
+                return arrayHash(accessor.get(o));
+            default:
+                return Objects.hashCode(accessor.get(o));
+        }
+    }
+
+    private static int arrayHash(Object array) {
+        if (array instanceof Object[]) {
+            return Arrays.deepHashCode((Object[]) array);
+        } else if (array instanceof int[]) {
+            return Arrays.hashCode((int[]) array);
+        } else if (array instanceof long[]) {
+            return Arrays.hashCode((long[]) array);
+        } else if (array instanceof byte[]) {
+            return Arrays.hashCode((byte[]) array);
+        } else if (array instanceof char[]) {
+            return Arrays.hashCode((char[]) array);
+        } else if (array instanceof short[]) {
+            return Arrays.hashCode((short[]) array);
+        } else if (array instanceof boolean[]) {
+            return Arrays.hashCode((boolean[]) array);
+        } else if (array instanceof float[]) {
+            return Arrays.hashCode((float[]) array);
+        } else if (array instanceof double[]) {
+            return Arrays.hashCode((double[]) array);
+        }
+        return Objects.hashCode(array);
+    }
+
+    private static byte kindOf(Class<?> type) {
+        if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class) {
+            return BYTE;
+        } else if (type == char.class) {
+            return CHAR;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type.isArray() || type == Object.class) {
+            // Object类型的属性也可能保存数组
+            return ARRAY;
+        }
+        return REFERENCE;
+    }
+
+    @Override
+    public String toString() {
+        return "ComparePlan{" +
+                "target=" + target +
+                ", size=" + accessors.length +
+                '}';
+    }
+}
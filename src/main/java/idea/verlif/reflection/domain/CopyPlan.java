@@ -0,0 +1,187 @@
+package idea.verlif.reflection.domain;
+
+/**
+ * 属性拷贝计划。保存源类与目标类之间已匹配的属性访问器对，拷贝时只需顺序读写。
+ *
+ * @author Verlif
+ */
+public final class CopyPlan {
+
+    private static final byte REFERENCE = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte BYTE = 2;
+    private static final byte CHAR = 3;
+    private static final byte SHORT = 4;
+    private static final byte INT = 5;
+    private static final byte LONG = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte CONVERT = 9;
+
+    /**
+     * 源类
+     */
+    private final Class<?> sourceClass;
+
+    /**
+     * 目标类
+     */
+    private final Class<?> targetClass;
+
+    /**
+     * 源属性访问器
+     */
+    private final FieldAccessor[] sources;
+
+    /**
+     * 目标属性访问器，与源属性访问器一一对应
+     */
+    private final FieldAccessor[] targets;
+
+    /**
+     * 目标属性是否需要跳过null值，即包装类拷贝到基础类型时
+     */
+    private final boolean[] skipNulls;
+
+    /**
+     * 拷贝方式。两侧都是基础类型时按目标类型直接读写，不进行装箱
+     */
+    private final byte[] kinds;
+
+    /**
+     * 类型转换器，与属性访问器对一一对应，类型可直接赋值的属性对为null
+     */
+    private final TypeConverter<Object, Object>[] converters;
+
+    public CopyPlan(Class<?> sourceClass, Class<?> targetClass, FieldAccessor[] sources, FieldAccessor[] targets) {
+        this(sourceClass, targetClass, sources, targets, null);
+    }
+
+    /**
+     * @param converters 类型转换器，可为null或包含null元素，null表示属性类型可直接赋值
+     */
+    public CopyPlan(Class<?> sourceClass, Class<?> targetClass, FieldAccessor[] sources, FieldAccessor[] targets,
+                    TypeConverter<Object, Object>[] converters) {
+        if (sources.length != targets.length || converters != null && converters.length != targets.length) {
+            throw new IllegalArgumentException("Accessor count mismatch - " + sources.length + " : " + targets.length);
+        }
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.sources = sources;
+        this.targets = targets;
+        this.converters = converters;
+        this.skipNulls = new boolean[targets.length];
+        this.kinds = new byte[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            Class<?> sourceType = sources[i].getField().getType();
+            Class<?> targetType = targets[i].getField().getType();
+            if (converters != null && converters[i] != null) {
+                // 转换器返回null时跳过，不覆盖目标属性
+                skipNulls[i] = true;
+                kinds[i] = CONVERT;
+            } else {
+                skipNulls[i] = targetType.isPrimitive() && !sourceType.isPrimitive();
+                kinds[i] = sourceType.isPrimitive() ? kindOf(targetType) : REFERENCE;
+            }
+        }
+    }
+
+    public Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * @return 拷贝的属性数量
+     */
+    public int size() {
+        return sources.length;
+    }
+
+    /**
+     * 按计划将源对象的属性值拷贝到目标对象中
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    public void copy(Object source, Object target) {
+        for (int i = 0; i < sources.length; i++) {
+            FieldAccessor from = sources[i];
+            FieldAccessor to = targets[i];
+            switch (kinds[i]) {
+                case BOOLEAN:
+                    to.setBoolean(target, from.getBoolean(source));
+                    break;
+                case BYTE:
+                    to.setByte(target, from.getByte(source));
+                    break;
+                case CHAR:
+                    to.setChar(target, from.getChar(source));
+                    break;
+                case SHORT:
+                    to.setShort(target, from.getShort(source));
+                    break;
+                case INT:
+                    to.setInt(target, from.getInt(source));
+                    break;
+                case LONG:
+                    to.setLong(target, from.getLong(source));
+                    break;
+                case FLOAT:
+                    to.setFloat(target, from.getFloat(source));
+                    break;
+                case DOUBLE:
+                    to.setDouble(target, from.getDouble(source));
+                    break;
+                case CONVERT: {
+                    Object value = from.get(source);
+                    if (value != null) {
+                        value = converters[i].convert(value);
+                        if (value != null) {
+                            to.set(target, value);
+                        }
+                    }
+                    break;
+                }
+                default:
+                    Object value = from.get(source);
+                    if (value != null || !skipNulls[i]) {
+                        to.set(target, value);
+                    }
+            }
+        }
+    }
+
+    private static byte kindOf(Class<?> type) {
+        if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class) {
+            return BYTE;
+        } else if (type == char.class) {
+            return CHAR;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == double.class) {
+            return DOUBLE;
+        }
+        return REFERENCE;
+    }
+
+    @Override
+    public String toString() {
+        return "CopyPlan{" +
+                "sourceClass=" + sourceClass +
+                ", targetClass=" + targetClass +
+                ", size=" + sources.length +
+                '}';
+    }
+}
@@ -0,0 +1,494 @@
+package idea.verlif.reflection.domain;
+
+import idea.verlif.reflection.util.ReflectUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * 属性访问器。创建时将属性编译成读写句柄，之后的读写不再修改属性的访问权限。<br/>
+ * 创建时传入属性声明类的元数据表后，可直接访问的属性通过{@link #get(Object)}与{@link #set(Object, Object)}读写时使用生成的代码。
+ *
+ * @author Verlif
+ */
+public final class FieldAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 属性对象
+     */
+    private final Field field;
+
+    /**
+     * 读句柄，(Object)Object
+     */
+    private final MethodHandle getter;
+
+    /**
+     * 写句柄，(Object, Object)void。属性不可写时为null
+     */
+    private final MethodHandle setter;
+
+    /**
+     * 基础类型读句柄，(Object)P。属性不是基础类型时为null
+     */
+    private final MethodHandle primitiveGetter;
+
+    /**
+     * 基础类型写句柄，(Object, P)void。属性不是基础类型或不可写时为null
+     */
+    private final MethodHandle primitiveSetter;
+
+    /**
+     * 属性声明类的元数据表，属性不可直接读写时为null
+     */
+    private final ClassMetadata metadata;
+
+    /**
+     * 属性在元数据表中的序号
+     */
+    private final int index;
+
+    /**
+     * 属性是否可通过元数据表直接读取
+     */
+    private final boolean directRead;
+
+    /**
+     * 属性是否可通过元数据表直接写入
+     */
+    private final boolean directWrite;
+
+    public FieldAccessor(Field field) {
+        this(field, null);
+    }
+
+    /**
+     * @param field    属性对象
+     * @param metadata 属性声明类的元数据表，可为null
+     */
+    public FieldAccessor(Field field, ClassMetadata metadata) {
+        this.field = field;
+        int index = metadata == null ? -1 : metadata.indexOf(field.getName());
+        this.directRead = index != -1 && metadata.isReadable(index);
+        this.directWrite = index != -1 && metadata.isWritable(index);
+        this.metadata = directRead || directWrite ? metadata : null;
+        this.index = index;
+        // 使用属性副本开启访问权限，避免影响外部共享的属性对象
+        Field copy;
+        try {
+            copy = field.getDeclaringClass().getDeclaredField(field.getName());
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+        copy.setAccessible(true);
+        boolean isStatic = Modifier.isStatic(field.getModifiers());
+        MethodHandle get;
+        try {
+            get = LOOKUP.unreflectGetter(copy);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        MethodHandle set;
+        try {
+            set = LOOKUP.unreflectSetter(copy);
+        } catch (IllegalAccessException e) {
+            set = null;
+        }
+        // 静态属性忽略目标对象参数
+        if (isStatic) {
+            get = MethodHandles.dropArguments(get, 0, Object.class);
+            if (set != null) {
+                set = MethodHandles.dropArguments(set, 0, Object.class);
+            }
+        }
+        this.getter = get.asType(GETTER_TYPE);
+        this.setter = set == null ? null : set.asType(SETTER_TYPE);
+        Class<?> type = field.getType();
+        if (type.isPrimitive()) {
+            this.primitiveGetter = get.asType(MethodType.methodType(type, Object.class));
+            this.primitiveSetter = set == null ? null : set.asType(MethodType.methodType(void.class, Object.class, type));
+        } else {
+            this.primitiveGetter = null;
+            this.primitiveSetter = null;
+        }
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return 属性是否可写。static final属性不可写
+     */
+    public boolean isWritable() {
+        return setter != null;
+    }
+
+    /**
+     * 获取对象中的属性值
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public Object get(Object target) {
+        if (directRead && (target == null || field.getDeclaringClass().isInstance(target))) {
+            return metadata.get(target, index);
+        }
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Can not get " + field + " from " + target, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 设置对象中的属性值
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void set(Object target, Object value) {
+        if (setter == null) {
+            throw new UnsupportedOperationException("Field is not writable - " + field);
+        }
+        if (value == null && field.getType().isPrimitive()) {
+            throw new IllegalArgumentException("Can not set " + field + " to null");
+        }
+        // 类型不匹配时交给写句柄抛出异常
+        if (directWrite && (target == null || field.getDeclaringClass().isInstance(target))
+                && (value == null || ReflectUtil.isAssignable(field.getType(), value.getClass()))) {
+            metadata.set(target, index, value);
+            return;
+        }
+        try {
+            setter.invokeExact(target, value);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Can not set " + field + " with " + value, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 获取boolean类型的属性值，不进行装箱
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public boolean getBoolean(Object target) {
+        if (field.getType() != boolean.class) {
+            throw mismatch("get boolean");
+        }
+        try {
+            return (boolean) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 获取byte类型的属性值，不进行装箱
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public byte getByte(Object target) {
+        if (field.getType() != byte.class) {
+            throw mismatch("get byte");
+        }
+        try {
+            return (byte) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 获取char类型的属性值，不进行装箱
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public char getChar(Object target) {
+        if (field.getType() != char.class) {
+            throw mismatch("get char");
+        }
+        try {
+            return (char) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 获取short类型的属性值，不进行装箱。byte属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public short getShort(Object target) {
+        if (field.getType() != short.class) {
+            return getByte(target);
+        }
+        try {
+            return (short) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 获取int类型的属性值，不进行装箱。byte、short、char属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public int getInt(Object target) {
+        Class<?> type = field.getType();
+        if (type != int.class) {
+            return type == char.class ? getChar(target) : getShort(target);
+        }
+        try {
+            return (int) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 获取long类型的属性值，不进行装箱。更窄的整数属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public long getLong(Object target) {
+        if (field.getType() != long.class) {
+            return getInt(target);
+        }
+        try {
+            return (long) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 获取float类型的属性值，不进行装箱。整数属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public float getFloat(Object target) {
+        if (field.getType() != float.class) {
+            return getLong(target);
+        }
+        try {
+            return (float) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 获取double类型的属性值，不进行装箱。更窄的数值属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @return 属性值
+     */
+    public double getDouble(Object target) {
+        if (field.getType() != double.class) {
+            return getFloat(target);
+        }
+        try {
+            return (double) primitiveGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置boolean类型的属性值，不进行装箱
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setBoolean(Object target, boolean value) {
+        if (field.getType() != boolean.class) {
+            throw mismatch("set boolean");
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置byte类型的属性值，不进行装箱。更宽的数值属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setByte(Object target, byte value) {
+        if (field.getType() != byte.class) {
+            setShort(target, value);
+            return;
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置char类型的属性值，不进行装箱。更宽的数值属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setChar(Object target, char value) {
+        if (field.getType() != char.class) {
+            setInt(target, value);
+            return;
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置short类型的属性值，不进行装箱。更宽的数值属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setShort(Object target, short value) {
+        if (field.getType() != short.class) {
+            setInt(target, value);
+            return;
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置int类型的属性值，不进行装箱。更宽的数值属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setInt(Object target, int value) {
+        if (field.getType() != int.class) {
+            setLong(target, value);
+            return;
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置long类型的属性值，不进行装箱。float、double属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setLong(Object target, long value) {
+        if (field.getType() != long.class) {
+            setFloat(target, value);
+            return;
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置float类型的属性值，不进行装箱。double属性会进行宽化转换。
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setFloat(Object target, float value) {
+        if (field.getType() != float.class) {
+            setDouble(target, value);
+            return;
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    /**
+     * 设置double类型的属性值，不进行装箱
+     *
+     * @param target 目标对象，静态属性时可为null
+     * @param value  属性值
+     */
+    public void setDouble(Object target, double value) {
+        if (field.getType() != double.class) {
+            throw mismatch("set double");
+        }
+        try {
+            writable().invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e, target);
+        }
+    }
+
+    private MethodHandle writable() {
+        if (primitiveSetter == null) {
+            throw new UnsupportedOperationException("Field is not writable - " + field);
+        }
+        return primitiveSetter;
+    }
+
+    private IllegalArgumentException mismatch(String operation) {
+        return new IllegalArgumentException("Can not " + operation + " with " + field);
+    }
+
+    private RuntimeException rethrow(Throwable e, Object target) {
+        if (e instanceof ClassCastException) {
+            return new IllegalArgumentException("Can not access " + field + " with " + target, e);
+        } else if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(e);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldAccessor{" +
+                "field=" + field +
+                '}';
+    }
+}
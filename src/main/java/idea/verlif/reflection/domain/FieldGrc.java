@@ -11,7 +11,7 @@ public final class FieldGrc extends ClassGrc {
     private final Field field;
 
     public FieldGrc(Field field) {
-        this(field, field.getType(), new ClassGrc[0]);
+        this(field, field.getType(), EMPTY_GENERICS);
     }
 
     public FieldGrc(Field field, Class<?> target, ClassGrc[] genericsInfos) {
@@ -19,10 +19,25 @@ public final class FieldGrc extends ClassGrc {
         this.field = field;
     }
 
+    public FieldGrc(Field field, ClassGrc classGrc) {
+        super(classGrc);
+        this.field = field;
+    }
+
     public Field getField() {
         return field;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && field.equals(((FieldGrc) o).field);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + field.hashCode();
+    }
+
     @Override
     public String toString() {
         return "FieldGrc{" +
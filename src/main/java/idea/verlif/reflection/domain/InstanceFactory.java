@@ -0,0 +1,111 @@
+package idea.verlif.reflection.domain;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+/**
+ * 实例工厂。创建时将构造器编译成展开参数数组的句柄，产生实例时不再经过Constructor.newInstance。
+ *
+ * @param <T> 实例类
+ * @author Verlif
+ */
+public final class InstanceFactory<T> implements Supplier<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    /**
+     * 构造器对象
+     */
+    private final Constructor<T> constructor;
+
+    /**
+     * 构造器参数数量
+     */
+    private final int parameterCount;
+
+    /**
+     * 构造器参数类型
+     */
+    private final Class<?>[] parameterTypes;
+
+    /**
+     * 构造句柄，(Object[])Object
+     */
+    private final MethodHandle handle;
+
+    public InstanceFactory(Constructor<T> constructor) {
+        this.constructor = constructor;
+        this.parameterCount = constructor.getParameterCount();
+        this.parameterTypes = constructor.getParameterTypes();
+        // 使用构造器副本开启访问权限，避免影响外部共享的构造器对象
+        Constructor<T> copy;
+        try {
+            copy = constructor.getDeclaringClass().getDeclaredConstructor(constructor.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+        copy.setAccessible(true);
+        try {
+            this.handle = LOOKUP.unreflectConstructor(copy).asFixedArity()
+                    .asType(MethodType.genericMethodType(parameterCount))
+                    .asSpreader(Object[].class, parameterCount);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Constructor<T> getConstructor() {
+        return constructor;
+    }
+
+    /**
+     * 通过构造器产生实例对象
+     *
+     * @param params 构造器参数，与Constructor.newInstance一致，null视为没有参数
+     * @return 实例对象
+     * @throws InvocationTargetException 构造器执行时抛出异常
+     * @throws IllegalArgumentException  参数数量或类型不匹配
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object... params) throws InvocationTargetException {
+        if (params == null) {
+            params = NO_PARAMS;
+        }
+        if (params.length != parameterCount) {
+            throw new IllegalArgumentException("Wrong number of arguments - " + params.length + " for " + constructor);
+        }
+        MethodInvoker.checkArguments(parameterTypes, params, constructor);
+        try {
+            return (T) (Object) handle.invokeExact(params);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * 通过无参构造器产生实例对象，构造器抛出的异常会被包装成RuntimeException
+     *
+     * @return 实例对象
+     */
+    @Override
+    public T get() {
+        try {
+            return newInstance(NO_PARAMS);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InstanceFactory{" +
+                "constructor=" + constructor +
+                '}';
+    }
+}
@@ -0,0 +1,160 @@
+package idea.verlif.reflection.domain;
+
+import idea.verlif.reflection.util.ReflectUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 方法执行器。创建时将方法编译成展开参数数组的句柄，执行时不再经过Method.invoke。
+ *
+ * @author Verlif
+ */
+public final class MethodInvoker {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    /**
+     * 方法对象
+     */
+    private final Method method;
+
+    /**
+     * 是否是静态方法
+     */
+    private final boolean isStatic;
+
+    /**
+     * 方法参数数量
+     */
+    private final int parameterCount;
+
+    /**
+     * 方法参数类型
+     */
+    private final Class<?>[] parameterTypes;
+
+    /**
+     * 执行句柄，(Object, Object[])Object
+     */
+    private final MethodHandle handle;
+
+    /**
+     * 省略末尾数组参数时的执行句柄，已绑定空数组。方法末尾参数不是数组时为null
+     */
+    private final MethodHandle omittedHandle;
+
+    public MethodInvoker(Method method) {
+        this.method = method;
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+        this.parameterCount = method.getParameterCount();
+        // 使用方法副本开启访问权限，避免影响外部共享的方法对象
+        Method copy;
+        try {
+            copy = method.getDeclaringClass().getDeclaredMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+        copy.setAccessible(true);
+        MethodHandle fixed;
+        try {
+            fixed = LOOKUP.unreflect(copy).asFixedArity();
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        // 静态方法忽略目标对象参数
+        if (isStatic) {
+            fixed = MethodHandles.dropArguments(fixed, 0, Object.class);
+        }
+        this.handle = spread(fixed, parameterCount);
+        this.parameterTypes = method.getParameterTypes();
+        if (parameterCount > 0 && parameterTypes[parameterCount - 1].isArray()) {
+            Object empty = Array.newInstance(parameterTypes[parameterCount - 1].getComponentType(), 0);
+            this.omittedHandle = spread(MethodHandles.insertArguments(fixed, parameterCount, empty), parameterCount - 1);
+        } else {
+            this.omittedHandle = null;
+        }
+    }
+
+    private static MethodHandle spread(MethodHandle fixed, int count) {
+        return fixed.asType(MethodType.genericMethodType(count + 1))
+                .asSpreader(Object[].class, count);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 执行方法。方法最后一位参数是数组时，可省略该参数。
+     *
+     * @param target 目标对象，静态方法时可为null
+     * @param params 方法参数，与Method.invoke一致，null视为没有参数
+     * @return 方法返回值，无返回值时为null
+     * @throws InvocationTargetException 方法执行时抛出异常
+     * @throws IllegalArgumentException  参数数量或类型不匹配
+     */
+    public Object invoke(Object target, Object... params) throws InvocationTargetException {
+        if (params == null) {
+            params = NO_PARAMS;
+        }
+        MethodHandle mh;
+        if (params.length == parameterCount) {
+            mh = handle;
+        } else if (omittedHandle != null && params.length == parameterCount - 1) {
+            mh = omittedHandle;
+        } else {
+            throw new IllegalArgumentException("Wrong number of arguments - " + params.length + " for " + method);
+        }
+        if (!isStatic && !method.getDeclaringClass().isInstance(target)) {
+            if (target == null) {
+                throw new NullPointerException("Target of " + method + " is null");
+            }
+            throw new IllegalArgumentException("Object is not an instance of " + method.getDeclaringClass());
+        }
+        // 先校验参数，句柄中的类型转换与拆箱失败不会被当作方法抛出的异常
+        checkArguments(parameterTypes, params, method);
+        try {
+            return (Object) mh.invokeExact(target, params);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * 校验参数是否可以传给对应类型的形参，规则与Method.invoke一致：基础类型形参不接受null，允许拆箱后的宽化转换。
+     * 只校验params中存在的参数。
+     *
+     * @param types  形参类型
+     * @param params 参数
+     * @param member 参数所属的方法或构造器，用于异常信息
+     * @throws IllegalArgumentException 参数类型不匹配
+     */
+    static void checkArguments(Class<?>[] types, Object[] params, Object member) {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            Class<?> type = types[i];
+            if (param == null) {
+                if (type.isPrimitive()) {
+                    throw new IllegalArgumentException("Null argument " + i + " for primitive parameter " + type + " of " + member);
+                }
+            } else if (!ReflectUtil.isAssignable(type, param.getClass())) {
+                throw new IllegalArgumentException("Argument type mismatch - " + param.getClass().getName() + " at " + i + " for " + member);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MethodInvoker{" +
+                "method=" + method +
+                '}';
+    }
+}
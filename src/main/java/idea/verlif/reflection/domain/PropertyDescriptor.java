@@ -0,0 +1,75 @@
+package idea.verlif.reflection.domain;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * 属性描述。保存属性名对应的属性对象、get方法与set方法，三者均可能为null，但至少存在其一。
+ *
+ * @author Verlif
+ */
+public final class PropertyDescriptor {
+
+    /**
+     * 属性名
+     */
+    private final String name;
+
+    /**
+     * 属性类型，优先取属性对象的类型，其次为get方法返回值类型，最后为set方法参数类型
+     */
+    private final Class<?> type;
+
+    /**
+     * 属性对象
+     */
+    private final Field field;
+
+    /**
+     * get方法，包括布尔类型的is方法
+     */
+    private final Method getter;
+
+    /**
+     * set方法
+     */
+    private final Method setter;
+
+    public PropertyDescriptor(String name, Class<?> type, Field field, Method getter, Method setter) {
+        this.name = name;
+        this.type = type;
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Method getGetter() {
+        return getter;
+    }
+
+    public Method getSetter() {
+        return setter;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyDescriptor{" +
+                "name='" + name + '\'' +
+                ", type=" + type +
+                ", getter=" + (getter == null ? null : getter.getName()) +
+                ", setter=" + (setter == null ? null : setter.getName()) +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package idea.verlif.reflection.domain;
+
+/**
+ * 类型转换器，用于不同类型属性之间的拷贝
+ *
+ * @param <S> 源类型
+ * @param <T> 目标类型
+ * @author Verlif
+ */
+@FunctionalInterface
+public interface TypeConverter<S, T> {
+
+    /**
+     * 转换属性值
+     *
+     * @param value 源值，不会为null
+     * @return 转换后的值，返回null表示无法转换，拷贝时跳过该属性
+     */
+    T convert(S value);
+}
@@ -0,0 +1,39 @@
+package idea.verlif.reflection.metrics;
+
+/**
+ * 缓存区域
+ *
+ * @author Verlif
+ */
+public enum CacheRegion {
+
+    /**
+     * 真实类信息缓存
+     */
+    ACTUAL_CLASS,
+
+    /**
+     * 按名称与参数类型解析的方法缓存
+     */
+    METHOD,
+
+    /**
+     * Lambda表达式解析缓存
+     */
+    LAMBDA,
+
+    /**
+     * 拷贝计划缓存
+     */
+    COPY_PLAN,
+
+    /**
+     * 类泛型信息共享实例表
+     */
+    CLASS_GRC,
+
+    /**
+     * 磁盘元数据快照
+     */
+    SNAPSHOT
+}
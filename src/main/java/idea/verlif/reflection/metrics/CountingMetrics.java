@@ -0,0 +1,101 @@
+package idea.verlif.reflection.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 计数指标。按解析类型与缓存区域累计次数与耗时，适合定期采集后上报到监控系统。
+ *
+ * @author Verlif
+ */
+public class CountingMetrics implements ReflectionMetrics {
+
+    private final LongAdder[] resolveCounts = adders(Resolution.values().length);
+    private final LongAdder[] resolveNanos = adders(Resolution.values().length);
+    private final LongAdder[] hitCounts = adders(CacheRegion.values().length);
+    private final LongAdder[] missCounts = adders(CacheRegion.values().length);
+    private final LongAdder[] evictionCounts = adders(CacheRegion.values().length);
+    private final LongAdder copyPlanCount = new LongAdder();
+    private final LongAdder copyPlanNanos = new LongAdder();
+
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    @Override
+    public void resolved(Resolution resolution, Class<?> target, long nanos) {
+        resolveCounts[resolution.ordinal()].increment();
+        resolveNanos[resolution.ordinal()].add(nanos);
+    }
+
+    @Override
+    public void cacheHit(CacheRegion region, Class<?> target) {
+        hitCounts[region.ordinal()].increment();
+    }
+
+    @Override
+    public void cacheMiss(CacheRegion region, Class<?> target) {
+        missCounts[region.ordinal()].increment();
+    }
+
+    @Override
+    public void cacheEvicted(CacheRegion region, Class<?> target) {
+        evictionCounts[region.ordinal()].increment();
+    }
+
+    @Override
+    public void copyPlanBuilt(Class<?> sourceClass, Class<?> targetClass, int size, long nanos) {
+        copyPlanCount.increment();
+        copyPlanNanos.add(nanos);
+    }
+
+    public long getResolveCount(Resolution resolution) {
+        return resolveCounts[resolution.ordinal()].sum();
+    }
+
+    /**
+     * @return 解析总耗时，单位纳秒
+     */
+    public long getResolveNanos(Resolution resolution) {
+        return resolveNanos[resolution.ordinal()].sum();
+    }
+
+    public long getHitCount(CacheRegion region) {
+        return hitCounts[region.ordinal()].sum();
+    }
+
+    public long getMissCount(CacheRegion region) {
+        return missCounts[region.ordinal()].sum();
+    }
+
+    public long getEvictionCount(CacheRegion region) {
+        return evictionCounts[region.ordinal()].sum();
+    }
+
+    public long getCopyPlanCount() {
+        return copyPlanCount.sum();
+    }
+
+    /**
+     * @return 拷贝计划构建总耗时，单位纳秒
+     */
+    public long getCopyPlanNanos() {
+        return copyPlanNanos.sum();
+    }
+
+    /**
+     * 清空所有计数
+     */
+    public void reset() {
+        for (LongAdder[] adders : new LongAdder[][]{resolveCounts, resolveNanos, hitCounts, missCounts, evictionCounts}) {
+            for (LongAdder adder : adders) {
+                adder.reset();
+            }
+        }
+        copyPlanCount.reset();
+        copyPlanNanos.reset();
+    }
+}
@@ -0,0 +1,65 @@
+package idea.verlif.reflection.metrics;
+
+/**
+ * 反射指标接口。所有方法默认不做任何处理，实现类只需覆盖关心的事件。<br/>
+ * 可通过MetricsUtil.setMetrics安装，或在META-INF/services中注册实现类，由工具首次使用时自动加载。
+ * 实现类会在解析线程中被同步调用，需要保证线程安全且足够轻量。
+ *
+ * @author Verlif
+ */
+public interface ReflectionMetrics {
+
+    /**
+     * 不做任何处理的默认实现
+     */
+    ReflectionMetrics NOOP = new ReflectionMetrics() {
+    };
+
+    /**
+     * 完成一次元数据解析
+     *
+     * @param resolution 解析类型
+     * @param target     解析的目标类
+     * @param nanos      解析耗时，单位纳秒
+     */
+    default void resolved(Resolution resolution, Class<?> target, long nanos) {
+    }
+
+    /**
+     * 缓存命中
+     *
+     * @param region 缓存区域
+     * @param target 缓存所属类
+     */
+    default void cacheHit(CacheRegion region, Class<?> target) {
+    }
+
+    /**
+     * 缓存未命中
+     *
+     * @param region 缓存区域
+     * @param target 缓存所属类
+     */
+    default void cacheMiss(CacheRegion region, Class<?> target) {
+    }
+
+    /**
+     * 缓存条目失效
+     *
+     * @param region 缓存区域
+     * @param target 缓存所属类
+     */
+    default void cacheEvicted(CacheRegion region, Class<?> target) {
+    }
+
+    /**
+     * 完成一次拷贝计划构建
+     *
+     * @param sourceClass 源类
+     * @param targetClass 目标类
+     * @param size        计划包含的属性数量
+     * @param nanos       构建耗时，单位纳秒
+     */
+    default void copyPlanBuilt(Class<?> sourceClass, Class<?> targetClass, int size, long nanos) {
+    }
+}
@@ -0,0 +1,39 @@
+package idea.verlif.reflection.metrics;
+
+/**
+ * 元数据解析类型
+ *
+ * @author Verlif
+ */
+public enum Resolution {
+
+    /**
+     * 真实类信息，对应ReflectUtil.getActualClass
+     */
+    ACTUAL_CLASS,
+
+    /**
+     * 属性泛型信息，对应FieldUtil.getFieldGrc
+     */
+    FIELD_GRC,
+
+    /**
+     * 方法泛型信息，对应MethodUtil.getMethodGrc
+     */
+    METHOD_GRC,
+
+    /**
+     * 方法查找，对应MethodUtil.getMethod
+     */
+    METHOD,
+
+    /**
+     * 属性名索引构建，对应FieldUtil.getField首次查找某个类时
+     */
+    FIELD,
+
+    /**
+     * Lambda表达式解析，对应getFieldFromLambda与getMethodFromLambda
+     */
+    LAMBDA
+}
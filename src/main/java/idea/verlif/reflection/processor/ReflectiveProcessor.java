@@ -0,0 +1,396 @@
+package idea.verlif.reflection.processor;
+
+import idea.verlif.reflection.domain.ClassMetadata;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Reflective注解处理器。为标记的类生成{@link ClassMetadata}实现，包含属性列表、属性与方法的泛型信息，
+ * 以及同包可见属性的直接读写与拷贝代码。
+ *
+ * @author Verlif
+ */
+@SupportedAnnotationTypes("idea.verlif.reflection.annotation.Reflective")
+public class ReflectiveProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.ENUM) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@Reflective only applies to classes", element);
+                    continue;
+                }
+                TypeElement type = (TypeElement) element;
+                if (isLocal(type)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@Reflective is ignored on local and anonymous classes", element);
+                    continue;
+                }
+                if (!isVisible(type)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@Reflective is ignored on private classes", element);
+                    continue;
+                }
+                try {
+                    generate(type);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate metadata - " + e.getMessage(), element);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 类或其外部类是局部类或匿名类时，生成的代码无法通过名称引用
+     */
+    private static boolean isLocal(TypeElement type) {
+        Element e = type;
+        while (e instanceof TypeElement) {
+            NestingKind kind = ((TypeElement) e).getNestingKind();
+            if (kind == NestingKind.LOCAL || kind == NestingKind.ANONYMOUS) {
+                return true;
+            }
+            e = e.getEnclosingElement();
+        }
+        return false;
+    }
+
+    /**
+     * 类及其外部类都不是私有类时，生成的同包代码才能访问
+     */
+    private static boolean isVisible(TypeElement type) {
+        Element e = type;
+        while (e instanceof TypeElement) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            e = e.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * 类及其外部类都是公开类时，其他包的代码才能访问
+     */
+    private static boolean isPublic(TypeElement type) {
+        Element e = type;
+        while (e instanceof TypeElement) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            e = e.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String className = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + ClassMetadata.SUFFIX;
+        String typeName = erasure(type.asType());
+
+        List<VariableElement> fields = ElementFilter.fieldsIn(type.getEnclosedElements());
+        StringBuilder names = new StringBuilder();
+        StringBuilder readable = new StringBuilder();
+        StringBuilder writable = new StringBuilder();
+        StringBuilder fieldGrc = new StringBuilder();
+        StringBuilder getter = new StringBuilder();
+        StringBuilder setter = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            VariableElement field = fields.get(i);
+            Set<Modifier> modifiers = field.getModifiers();
+            boolean canRead = !modifiers.contains(Modifier.PRIVATE);
+            boolean canWrite = canRead && !modifiers.contains(Modifier.FINAL);
+            String separator = i == 0 ? "" : ", ";
+            names.append(separator).append('"').append(field.getSimpleName()).append('"');
+            readable.append(separator).append(canRead);
+            writable.append(separator).append(canWrite);
+            String grc = grc(field.asType(), new HashSet<>());
+            if (grc != null) {
+                fieldGrc.append("            case ").append(i).append(":\n")
+                        .append("                return ").append(grc).append(";\n");
+            }
+            String access = (modifiers.contains(Modifier.STATIC) ? typeName : "((" + typeName + ") target)") + "." + field.getSimpleName();
+            if (canRead) {
+                getter.append("            case ").append(i).append(":\n")
+                        .append("                return ").append(access).append(";\n");
+            }
+            if (canWrite) {
+                TypeMirror fieldType = field.asType();
+                String value;
+                if (fieldType.getKind().isPrimitive()) {
+                    // 基础类型按宽化规则拆箱，与反射访问器一致
+                    value = fieldType.getKind().name().toLowerCase(Locale.ROOT) + "Value(value)";
+                } else {
+                    String cast = erasure(fieldType);
+                    value = "java.lang.Object".equals(cast) ? "value" : "(" + cast + ") value";
+                }
+                setter.append("            case ").append(i).append(":\n")
+                        .append("                ").append(access).append(" = ").append(value).append(";\n")
+                        .append("                return;\n");
+            }
+        }
+
+        StringBuilder methodGrc = new StringBuilder();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            StringBuilder key = new StringBuilder(method.getSimpleName()).append('(');
+            StringBuilder grcs = new StringBuilder();
+            Set<String> resolving = new HashSet<>();
+            String result = method.getReturnType().getKind() == TypeKind.VOID ? "null" : grc(method.getReturnType(), resolving);
+            if (result == null) {
+                continue;
+            }
+            grcs.append(result);
+            boolean complete = true;
+            for (VariableElement parameter : method.getParameters()) {
+                key.append(descriptor(parameter.asType()));
+                String grc = grc(parameter.asType(), resolving);
+                if (grc == null) {
+                    complete = false;
+                    break;
+                }
+                grcs.append(", ").append(grc);
+            }
+            if (complete) {
+                key.append(')');
+                methodGrc.append("            case \"").append(key).append("\":\n")
+                        .append("                return new ClassGrc[]{").append(grcs).append("};\n");
+            }
+        }
+
+        String copy = copyCode(type, packageName);
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? className : packageName + "." + className, type);
+        try (Writer writer = file.openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("import idea.verlif.reflection.domain.ClassGrc;\n" +
+                    "import idea.verlif.reflection.domain.ClassMetadata;\n\n" +
+                    "import java.util.Map;\n\n" +
+                    "/**\n" +
+                    " * " + type.getQualifiedName() + "的元数据表，由ReflectiveProcessor生成\n" +
+                    " */\n" +
+                    "@SuppressWarnings({\"rawtypes\", \"unchecked\", \"cast\"})\n" +
+                    "public final class " + className + " extends ClassMetadata {\n\n" +
+                    "    public " + className + "() {\n" +
+                    "        super(" + typeName + ".class,\n" +
+                    "                new String[]{" + names + "},\n" +
+                    "                new boolean[]{" + readable + "},\n" +
+                    "                new boolean[]{" + writable + "});\n" +
+                    "    }\n\n" +
+                    "    @Override\n" +
+                    "    public ClassGrc getFieldGrc(int index, Map<String, ClassGrc> genericsMap) {\n" +
+                    "        switch (index) {\n" +
+                    fieldGrc +
+                    "            default:\n" +
+                    "                return null;\n" +
+                    "        }\n" +
+                    "    }\n\n" +
+                    "    @Override\n" +
+                    "    public ClassGrc[] getMethodGrc(String methodKey, Map<String, ClassGrc> genericsMap) {\n" +
+                    "        switch (methodKey) {\n" +
+                    methodGrc +
+                    "            default:\n" +
+                    "                return null;\n" +
+                    "        }\n" +
+                    "    }\n\n" +
+                    "    @Override\n" +
+                    "    public Object get(Object target, int index) {\n" +
+                    "        switch (index) {\n" +
+                    getter +
+                    "            default:\n" +
+                    "                throw new IllegalArgumentException(\"Field is not readable - \" + index);\n" +
+                    "        }\n" +
+                    "    }\n\n" +
+                    "    @Override\n" +
+                    "    public void set(Object target, int index, Object value) {\n" +
+                    "        switch (index) {\n" +
+                    setter +
+                    "            default:\n" +
+                    "                throw new IllegalArgumentException(\"Field is not writable - \" + index);\n" +
+                    "        }\n" +
+                    "    }\n\n" +
+                    "    @Override\n" +
+                    "    public boolean copy(Object source, Object target) {\n" +
+                    copy +
+                    "    }\n" +
+                    "}\n");
+        }
+    }
+
+    /**
+     * 生成拷贝代码。目标类及其父类的非静态属性都需要同包可见且可写，否则生成的拷贝方法直接返回false
+     */
+    private String copyCode(TypeElement type, String packageName) {
+        StringBuilder code = new StringBuilder();
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+            String currentPackage = processingEnv.getElementUtils().getPackageOf(current).getQualifiedName().toString();
+            String currentName = erasure(current.asType());
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC)) {
+                    continue;
+                }
+                boolean accessible = currentPackage.equals(packageName)
+                        ? !modifiers.contains(Modifier.PRIVATE) && isVisible(current)
+                        : modifiers.contains(Modifier.PUBLIC) && isPublic(current);
+                if (!accessible || modifiers.contains(Modifier.FINAL)) {
+                    return "        return false;\n";
+                }
+                code.append("        ((").append(currentName).append(") target).").append(field.getSimpleName())
+                        .append(" = ((").append(currentName).append(") source).").append(field.getSimpleName()).append(";\n");
+            }
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return code.append("        return true;\n").toString();
+    }
+
+    /**
+     * 生成类型的ClassGrc表达式，与运行时的签名解析结果一致。无法在编译期确定时返回null
+     *
+     * @param resolving 正在展开边界的方法泛型变量，避免递归边界无限展开
+     */
+    private String grc(TypeMirror type, Set<String> resolving) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case CHAR:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "ClassGrc.of(" + erasure(type) + ".class)";
+            case DECLARED: {
+                List<String> arguments = arguments(type, resolving);
+                return arguments == null ? null : of(erasure(type), arguments);
+            }
+            case ARRAY: {
+                TypeMirror component = type;
+                while (component.getKind() == TypeKind.ARRAY) {
+                    component = ((ArrayType) component).getComponentType();
+                }
+                // 泛型变量数组的真实类型依赖泛型表，交给运行时解析
+                if (component.getKind() == TypeKind.TYPEVAR) {
+                    return null;
+                }
+                List<String> arguments = arguments(((ArrayType) type).getComponentType(), resolving);
+                return arguments == null ? null : of(erasure(type), arguments);
+            }
+            case TYPEVAR: {
+                TypeVariable variable = (TypeVariable) type;
+                String name = variable.asElement().getSimpleName().toString();
+                Element owner = variable.asElement().getEnclosingElement();
+                // 方法泛型变量使用其边界类型，类泛型变量从泛型表中获取
+                if (owner instanceof ExecutableElement && resolving.add(name)) {
+                    TypeMirror bound = variable.getUpperBound();
+                    if (bound.getKind() == TypeKind.INTERSECTION) {
+                        bound = ((IntersectionType) bound).getBounds().get(0);
+                    }
+                    String grc = grc(bound, resolving);
+                    resolving.remove(name);
+                    return grc;
+                }
+                return "variable(genericsMap, \"" + name + "\")";
+            }
+            case WILDCARD: {
+                WildcardType wildcard = (WildcardType) type;
+                TypeMirror bound = wildcard.getExtendsBound() != null ? wildcard.getExtendsBound() : wildcard.getSuperBound();
+                return bound == null ? "ClassGrc.of(java.lang.Object.class)" : grc(bound, resolving);
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 获取类型的泛型参数表达式，数组取其元素类型的泛型参数
+     */
+    private List<String> arguments(TypeMirror type, Set<String> resolving) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return arguments(((ArrayType) type).getComponentType(), resolving);
+        } else if (type.getKind() != TypeKind.DECLARED) {
+            return Collections.emptyList();
+        }
+        List<String> arguments = new ArrayList<>();
+        for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+            String grc = grc(argument, resolving);
+            if (grc == null) {
+                return null;
+            }
+            arguments.add(grc);
+        }
+        return arguments;
+    }
+
+    private static String of(String className, List<String> arguments) {
+        StringBuilder sb = new StringBuilder("ClassGrc.of(").append(className).append(".class");
+        for (String argument : arguments) {
+            sb.append(", ").append(argument);
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * 获取擦除后的类型源码名。不使用TypeMirror.toString，其结果会保留TYPE_USE注解，无法用于类字面量与类型转换
+     */
+    private String erasure(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return erased.getKind().name().toLowerCase(Locale.ROOT);
+        } else if (erased.getKind() == TypeKind.ARRAY) {
+            return erasure(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * 获取擦除后的类型描述，与运行时ActualClass.methodKey一致
+     */
+    private String descriptor(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) erased).getComponentType());
+            default:
+                TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+                return "L" + processingEnv.getElementUtils().getBinaryName(element).toString().replace('.', '/') + ";";
+        }
+    }
+}
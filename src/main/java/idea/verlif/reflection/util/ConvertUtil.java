@@ -0,0 +1,283 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.domain.TypeConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 类型转换工具。以(源类型, 目标类型)为键保存转换器，基础类型按其包装类处理。<br/>
+ * 内置数值类型之间的宽化与窄化转换，以及字符串与数值、布尔值之间的转换；注册的转换器优先于内置转换器。
+ * 窄化转换与Java的强制类型转换一样舍去小数部分，但超出目标类型范围的值无法转换，不会被截断。<br/>
+ * 拷贝计划在构建时解析转换器，注册或移除转换器后，构建时查找过转换器的拷贝计划会在下次使用时重新构建，
+ * 所有属性类型都可直接赋值的拷贝计划不受影响。
+ *
+ * @author Verlif
+ */
+public class ConvertUtil {
+
+    /**
+     * 数值目标类型的内置转换器，适用于所有Number源类型
+     */
+    private static final Map<Class<?>, TypeConverter<Object, Object>> FROM_NUMBER = new HashMap<>();
+
+    /**
+     * 字符串源类型的内置转换器
+     */
+    private static final Map<Class<?>, TypeConverter<Object, Object>> FROM_STRING = new HashMap<>();
+
+    /**
+     * 转换为字符串的内置转换器
+     */
+    private static final TypeConverter<Object, Object> TO_STRING = String::valueOf;
+
+    /**
+     * 注册的转换器，以源类型分组，再以目标类型为键
+     */
+    private static final ClassValue<Map<Class<?>, TypeConverter<Object, Object>>> REGISTERED = new ClassValue<Map<Class<?>, TypeConverter<Object, Object>>>() {
+        @Override
+        protected Map<Class<?>, TypeConverter<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * 注册表版本，每次注册或移除转换器时递增
+     */
+    private static final AtomicInteger VERSION = new AtomicInteger();
+
+    static {
+        FROM_NUMBER.put(Byte.class, v -> {
+            Long l = integral((Number) v, Byte.SIZE);
+            return l == null ? null : l.byteValue();
+        });
+        FROM_NUMBER.put(Short.class, v -> {
+            Long l = integral((Number) v, Short.SIZE);
+            return l == null ? null : l.shortValue();
+        });
+        FROM_NUMBER.put(Integer.class, v -> {
+            Long l = integral((Number) v, Integer.SIZE);
+            return l == null ? null : l.intValue();
+        });
+        FROM_NUMBER.put(Long.class, v -> integral((Number) v, Long.SIZE));
+        FROM_NUMBER.put(Float.class, v -> {
+            float f = ((Number) v).floatValue();
+            return Float.isInfinite(f) && !infinite((Number) v) ? null : f;
+        });
+        FROM_NUMBER.put(Double.class, v -> {
+            double d = ((Number) v).doubleValue();
+            return Double.isInfinite(d) && !infinite((Number) v) ? null : d;
+        });
+        FROM_NUMBER.put(BigInteger.class, v -> {
+            BigDecimal decimal = toBigDecimal((Number) v);
+            return decimal == null ? null : decimal.toBigInteger();
+        });
+        FROM_NUMBER.put(BigDecimal.class, v -> toBigDecimal((Number) v));
+
+        FROM_STRING.put(Byte.class, v -> parse((String) v, Byte.class));
+        FROM_STRING.put(Short.class, v -> parse((String) v, Short.class));
+        FROM_STRING.put(Integer.class, v -> parse((String) v, Integer.class));
+        FROM_STRING.put(Long.class, v -> parse((String) v, Long.class));
+        FROM_STRING.put(Float.class, v -> parse((String) v, Float.class));
+        FROM_STRING.put(Double.class, v -> parse((String) v, Double.class));
+        FROM_STRING.put(BigInteger.class, v -> parse((String) v, BigInteger.class));
+        FROM_STRING.put(BigDecimal.class, v -> parse((String) v, BigDecimal.class));
+        FROM_STRING.put(Boolean.class, v -> {
+            String s = ((String) v).trim();
+            if ("true".equalsIgnoreCase(s)) {
+                return Boolean.TRUE;
+            } else if ("false".equalsIgnoreCase(s)) {
+                return Boolean.FALSE;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 注册转换器，已存在时覆盖
+     *
+     * @param source    源类型
+     * @param target    目标类型
+     * @param converter 转换器
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> void register(Class<S> source, Class<T> target, TypeConverter<? super S, ? extends T> converter) {
+        REGISTERED.get(ReflectUtil.noPrimitive(source)).put(ReflectUtil.noPrimitive(target), (TypeConverter<Object, Object>) converter);
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * 移除注册的转换器
+     *
+     * @param source 源类型
+     * @param target 目标类型
+     * @return 是否存在并移除了转换器
+     */
+    public static boolean unregister(Class<?> source, Class<?> target) {
+        boolean removed = REGISTERED.get(ReflectUtil.noPrimitive(source)).remove(ReflectUtil.noPrimitive(target)) != null;
+        if (removed) {
+            VERSION.incrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * 获取两个类型之间的转换器
+     *
+     * @param source 源类型
+     * @param target 目标类型
+     * @return 注册的转换器，没有注册时返回内置转换器，都不存在时返回null
+     */
+    public static TypeConverter<Object, Object> getConverter(Class<?> source, Class<?> target) {
+        Class<?> from = ReflectUtil.noPrimitive(source);
+        Class<?> to = ReflectUtil.noPrimitive(target);
+        TypeConverter<Object, Object> converter = REGISTERED.get(from).get(to);
+        if (converter != null) {
+            return converter;
+        }
+        if (Number.class.isAssignableFrom(from)) {
+            converter = FROM_NUMBER.get(to);
+        } else if (from == String.class) {
+            converter = FROM_STRING.get(to);
+        }
+        if (converter == null && to == String.class
+                && (Number.class.isAssignableFrom(from) || from == Boolean.class || from == Character.class)) {
+            converter = TO_STRING;
+        }
+        return converter;
+    }
+
+    /**
+     * 转换值
+     *
+     * @param value  源值
+     * @param target 目标类型
+     * @return 转换后的值。源值为null、无法转换或没有转换器时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(Object value, Class<T> target) {
+        if (value == null) {
+            return null;
+        }
+        if (ReflectUtil.noPrimitive(target).isInstance(value)) {
+            return (T) value;
+        }
+        TypeConverter<Object, Object> converter = getConverter(value.getClass(), target);
+        return converter == null ? null : (T) converter.convert(value);
+    }
+
+    /**
+     * @return 注册表版本
+     */
+    static int version() {
+        return VERSION.get();
+    }
+
+    /**
+     * 转换为整数，舍去小数部分
+     *
+     * @param n    数值
+     * @param bits 目标整数类型的位数
+     * @return 转换后的值，NaN、无穷大或超出目标类型范围时返回null
+     */
+    private static Long integral(Number n, int bits) {
+        if (n instanceof Double || n instanceof Float) {
+            double d = n.doubleValue();
+            if (Double.isNaN(d)) {
+                return null;
+            }
+            d = d < 0 ? Math.ceil(d) : Math.floor(d);
+            // 2的bits-1次方可以用double精确表示
+            double bound = Math.scalb(1.0, bits - 1);
+            return d < -bound || d >= bound ? null : (long) d;
+        } else if (n instanceof BigInteger || n instanceof BigDecimal) {
+            BigInteger i = n instanceof BigInteger ? (BigInteger) n : ((BigDecimal) n).toBigInteger();
+            return i.bitLength() > bits - 1 ? null : i.longValue();
+        }
+        long l = n.longValue();
+        if (bits < Long.SIZE) {
+            long bound = 1L << (bits - 1);
+            if (l < -bound || l >= bound) {
+                return null;
+            }
+        }
+        return l;
+    }
+
+    /**
+     * 判断数值本身是否是无穷大，用于区分溢出产生的无穷大
+     */
+    private static boolean infinite(Number n) {
+        return (n instanceof Double || n instanceof Float) && Double.isInfinite(n.doubleValue());
+    }
+
+    /**
+     * 转换为BigDecimal，NaN与无穷大无法转换时返回null
+     */
+    private static BigDecimal toBigDecimal(Number n) {
+        if (n instanceof BigDecimal) {
+            return (BigDecimal) n;
+        } else if (n instanceof BigInteger) {
+            return new BigDecimal((BigInteger) n);
+        } else if (n instanceof Double || n instanceof Float) {
+            double d = n.doubleValue();
+            return Double.isNaN(d) || Double.isInfinite(d) ? null : new BigDecimal(n.toString());
+        }
+        return BigDecimal.valueOf(n.longValue());
+    }
+
+    /**
+     * 解析数值字符串。先检查字符组成，明显不是数值的字符串不会触发解析异常
+     */
+    private static Object parse(String s, Class<?> type) {
+        s = s.trim();
+        boolean integral = type != Float.class && type != Double.class && type != BigDecimal.class;
+        if (!numeric(s, integral)) {
+            return null;
+        }
+        try {
+            if (type == Byte.class) {
+                return Byte.valueOf(s);
+            } else if (type == Short.class) {
+                return Short.valueOf(s);
+            } else if (type == Integer.class) {
+                return Integer.valueOf(s);
+            } else if (type == Long.class) {
+                return Long.valueOf(s);
+            } else if (type == Float.class) {
+                return Float.valueOf(s);
+            } else if (type == Double.class) {
+                return Double.valueOf(s);
+            } else if (type == BigInteger.class) {
+                return new BigInteger(s);
+            } else {
+                return new BigDecimal(s);
+            }
+        } catch (NumberFormatException e) {
+            // 超出范围等少数情况
+            return null;
+        }
+    }
+
+    private static boolean numeric(String s, boolean integral) {
+        int length = s.length();
+        int i = length > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+') ? 1 : 0;
+        if (i == length) {
+            return false;
+        }
+        boolean digit = false;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (integral || c != '.' && c != 'e' && c != 'E' && c != '-' && c != '+') {
+                return false;
+            }
+        }
+        return digit;
+    }
+}
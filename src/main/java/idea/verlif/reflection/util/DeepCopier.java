@@ -0,0 +1,615 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.domain.CopyPlan;
+import idea.verlif.reflection.domain.FieldAccessor;
+import idea.verlif.reflection.domain.InstanceFactory;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.regex.Pattern;
+
+/**
+ * 深拷贝器。使用显式栈遍历对象图，不受递归深度限制；通过身份表保证每个对象只拷贝一次，循环引用会指向同一个拷贝对象。
+ */
+final class DeepCopier {
+
+    /**
+     * 不可变对象，直接共享引用
+     */
+    private static final byte IMMUTABLE = 0;
+
+    /**
+     * 基础类型数组
+     */
+    private static final byte PRIMITIVE_ARRAY = 1;
+
+    /**
+     * 对象数组
+     */
+    private static final byte OBJECT_ARRAY = 2;
+
+    /**
+     * 集合，通过集合方法重建
+     */
+    private static final byte COLLECTION = 3;
+
+    /**
+     * 映射表，通过映射表方法重建
+     */
+    private static final byte MAP = 4;
+
+    /**
+     * 通过公开的clone方法拷贝的JDK对象
+     */
+    private static final byte CLONE = 5;
+
+    /**
+     * 普通对象，按属性拷贝
+     */
+    private static final byte BEAN = 6;
+
+    /**
+     * 不含引用的JDK可变值对象，创建时直接拷贝值
+     */
+    private static final byte VALUE = 7;
+
+    /**
+     * AtomicReference与AtomicReferenceArray，按引用的对象拷贝
+     */
+    private static final byte ATOMIC_REFERENCE = 8;
+
+    /**
+     * 重建的容器不包装
+     */
+    private static final byte WRAP_NONE = 0;
+
+    /**
+     * 重建的容器包装为不可修改容器
+     */
+    private static final byte WRAP_UNMODIFIABLE = 1;
+
+    /**
+     * 重建的容器包装为同步容器
+     */
+    private static final byte WRAP_SYNCHRONIZED = 2;
+
+    /**
+     * 重建为Arrays.asList的定长列表
+     */
+    private static final byte WRAP_FIXED_SIZE = 3;
+
+    private static final Set<Class<?>> IMMUTABLE_CLASSES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, Class.class, Object.class,
+            UUID.class, Locale.class, Currency.class, URI.class, Pattern.class));
+
+    private static final Set<Class<?>> VALUE_CLASSES = new HashSet<>(Arrays.asList(
+            StringBuilder.class, StringBuffer.class, AtomicBoolean.class, AtomicInteger.class, AtomicLong.class,
+            AtomicIntegerArray.class, AtomicLongArray.class));
+
+    /**
+     * 重建非公开JDK容器时按顺序匹配的容器接口，决定重建使用的可变容器与包装方法
+     */
+    private static final Class<?>[] VIEWS = {
+            List.class, NavigableSet.class, SortedSet.class, Set.class,
+            NavigableMap.class, SortedMap.class, Map.class, Collection.class};
+
+    /**
+     * 类的深拷贝计划缓存
+     */
+    private static final ClassValue<Plan> PLANS = new ClassValue<Plan>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return buildPlan(type);
+        }
+    };
+
+    private DeepCopier() {
+    }
+
+    /**
+     * 深拷贝对象
+     *
+     * @param source 源对象
+     * @return 拷贝对象
+     */
+    static Object copy(Object source) {
+        if (source == null || PLANS.get(source.getClass()).kind == IMMUTABLE) {
+            return source;
+        }
+        return new Run().copy(source);
+    }
+
+    /**
+     * 单次深拷贝的状态
+     */
+    private static final class Run {
+
+        /**
+         * 源对象与拷贝对象的身份表
+         */
+        private final IdentityHashMap<Object, Object> copies = new IdentityHashMap<>();
+
+        /**
+         * 已创建拷贝对象但尚未填充内容的源对象
+         */
+        private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+        /**
+         * 集合与映射表，需要在其元素都填充完成后再按发现的逆序填充，保证元素的哈希值已经确定
+         */
+        private final List<Object> containers = new ArrayList<>();
+
+        /**
+         * 重建的容器与其被包装的可变容器，定长列表对应其底层数组
+         */
+        private final IdentityHashMap<Object, Object> targets = new IdentityHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        Object copy(Object source) {
+            Object root = resolve(source);
+            while (!pending.isEmpty()) {
+                Object original = pending.pop();
+                Object copy = copies.get(original);
+                Plan plan = PLANS.get(original.getClass());
+                switch (plan.kind) {
+                    case OBJECT_ARRAY: {
+                        Object[] from = (Object[]) original;
+                        Object[] to = (Object[]) copy;
+                        for (int i = 0; i < from.length; i++) {
+                            to[i] = resolve(from[i]);
+                        }
+                        break;
+                    }
+                    case COLLECTION:
+                        for (Object element : (Collection<?>) original) {
+                            resolve(element);
+                        }
+                        containers.add(original);
+                        break;
+                    case MAP:
+                        for (Map.Entry<?, ?> entry : ((Map<?, ?>) original).entrySet()) {
+                            resolve(entry.getKey());
+                            resolve(entry.getValue());
+                        }
+                        containers.add(original);
+                        break;
+                    case ATOMIC_REFERENCE:
+                        if (original instanceof AtomicReference) {
+                            ((AtomicReference<Object>) copy).set(resolve(((AtomicReference<?>) original).get()));
+                        } else {
+                            AtomicReferenceArray<?> from = (AtomicReferenceArray<?>) original;
+                            AtomicReferenceArray<Object> to = (AtomicReferenceArray<Object>) copy;
+                            for (int i = 0; i < from.length(); i++) {
+                                to.set(i, resolve(from.get(i)));
+                            }
+                        }
+                        break;
+                    default:
+                        plan.primitives.copy(original, copy);
+                        for (FieldAccessor accessor : plan.references) {
+                            accessor.set(copy, resolve(accessor.get(original)));
+                        }
+                }
+            }
+            for (int i = containers.size() - 1; i >= 0; i--) {
+                fill(containers.get(i));
+            }
+            return root;
+        }
+
+        /**
+         * 获取对象的拷贝对象，尚未拷贝时创建拷贝对象并加入待填充栈
+         */
+        private Object resolve(Object value) {
+            if (value == null) {
+                return null;
+            }
+            Object copy = copies.get(value);
+            if (copy != null) {
+                return copy;
+            }
+            Plan plan = PLANS.get(value.getClass());
+            switch (plan.kind) {
+                case IMMUTABLE:
+                    return value;
+                case PRIMITIVE_ARRAY: {
+                    int length = Array.getLength(value);
+                    copy = Array.newInstance(value.getClass().getComponentType(), length);
+                    System.arraycopy(value, 0, copy, 0, length);
+                    copies.put(value, copy);
+                    return copy;
+                }
+                case OBJECT_ARRAY:
+                    copy = Array.newInstance(value.getClass().getComponentType(), ((Object[]) value).length);
+                    break;
+                case CLONE:
+                    copy = plan.cloneOf(value);
+                    copies.put(value, copy);
+                    return copy;
+                case VALUE:
+                    copy = copyValue(value);
+                    copies.put(value, copy);
+                    return copy;
+                case ATOMIC_REFERENCE:
+                    copy = value instanceof AtomicReference
+                            ? new AtomicReference<>() : new AtomicReferenceArray<>(((AtomicReferenceArray<?>) value).length());
+                    break;
+                case COLLECTION:
+                    if (plan.view != null) {
+                        copy = rebuild(value, plan);
+                    } else if (plan.factory == null) {
+                        copy = plan.cloneOf(value);
+                        ((Collection<?>) copy).clear();
+                    } else {
+                        copy = plan.factory.get();
+                    }
+                    break;
+                case MAP:
+                    if (plan.view != null) {
+                        copy = rebuild(value, plan);
+                    } else if (plan.factory == null) {
+                        copy = plan.cloneOf(value);
+                        ((Map<?, ?>) copy).clear();
+                    } else {
+                        copy = plan.factory.get();
+                    }
+                    break;
+                default:
+                    copy = plan.factory.get();
+            }
+            copies.put(value, copy);
+            pending.push(value);
+            return copy;
+        }
+
+        /**
+         * 创建重建容器，记录需要填充的可变容器
+         */
+        private Object rebuild(Object value, Plan plan) {
+            if (plan.wrapper == WRAP_FIXED_SIZE) {
+                Object[] array = new Object[((List<?>) value).size()];
+                targets.put(value, array);
+                return Arrays.asList(array);
+            }
+            Object target = container(plan.view, value);
+            targets.put(value, target);
+            return wrap(plan.view, plan.wrapper, target);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void fill(Object original) {
+            Object copy = targets.get(original);
+            if (copy == null) {
+                copy = copies.get(original);
+            }
+            if (copy instanceof Object[]) {
+                Object[] to = (Object[]) copy;
+                int i = 0;
+                for (Object element : (Collection<?>) original) {
+                    to[i++] = mapped(element);
+                }
+            } else if (original instanceof Collection) {
+                Collection<Object> to = (Collection<Object>) copy;
+                for (Object element : (Collection<?>) original) {
+                    to.add(mapped(element));
+                }
+            } else {
+                Map<Object, Object> to = (Map<Object, Object>) copy;
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) original).entrySet()) {
+                    to.put(mapped(entry.getKey()), mapped(entry.getValue()));
+                }
+            }
+        }
+
+        /**
+         * 获取已拷贝的对象，不可变对象返回自身
+         */
+        private Object mapped(Object value) {
+            Object copy = value == null ? null : copies.get(value);
+            return copy == null ? value : copy;
+        }
+    }
+
+    private static Plan buildPlan(Class<?> type) {
+        if (IMMUTABLE_CLASSES.contains(type) || Enum.class.isAssignableFrom(type)
+                || type.getClassLoader() == null && type.getName().startsWith("java.time.")) {
+            return new Plan(IMMUTABLE);
+        }
+        if (type.isArray()) {
+            return new Plan(type.getComponentType().isPrimitive() ? PRIMITIVE_ARRAY : OBJECT_ARRAY);
+        }
+        if (VALUE_CLASSES.contains(type)) {
+            return new Plan(VALUE);
+        }
+        if (type == AtomicReference.class || type == AtomicReferenceArray.class) {
+            return new Plan(ATOMIC_REFERENCE);
+        }
+        boolean collection = Collection.class.isAssignableFrom(type);
+        if (collection || Map.class.isAssignableFrom(type)) {
+            Method clone = publicClone(type);
+            // 比较器、访问顺序等状态无法通过无参构造器还原，这类容器通过克隆后清空创建
+            boolean stateful = SortedMap.class.isAssignableFrom(type) || SortedSet.class.isAssignableFrom(type)
+                    || PriorityQueue.class.isAssignableFrom(type) || LinkedHashMap.class.isAssignableFrom(type)
+                    || EnumMap.class.isAssignableFrom(type) || EnumSet.class.isAssignableFrom(type);
+            InstanceFactory<?> factory = stateful && clone != null ? null : publicFactory(type);
+            if (factory != null || clone != null) {
+                return new Plan(collection ? COLLECTION : MAP, factory, null, null, clone);
+            }
+        }
+        // JDK内部类的属性不可访问，只能重建或通过公开的clone方法拷贝，没有实例属性的类按不可变对象共享
+        if (type.getClassLoader() == null) {
+            if (collection || Map.class.isAssignableFrom(type)) {
+                Plan plan = rebuildPlan(type, collection);
+                if (plan == null) {
+                    throw new IllegalArgumentException("Unsupported JDK container for deep copy - " + type);
+                }
+                return plan;
+            }
+            Method clone = publicClone(type);
+            if (clone != null) {
+                return new Plan(CLONE, null, null, null, clone);
+            }
+            if (stateless(type)) {
+                return new Plan(IMMUTABLE);
+            }
+            throw new IllegalArgumentException("Unsupported JDK type for deep copy - " + type);
+        }
+        InstanceFactory<?> factory = ReflectUtil.declaredFactory(type);
+        if (factory == null) {
+            throw new IllegalArgumentException("No no-arg constructor for deep copy - " + type);
+        }
+        List<FieldAccessor> primitives = new ArrayList<>();
+        List<FieldAccessor> references = new ArrayList<>();
+        for (Field field : FieldUtil.getAllFields(type)) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            FieldAccessor accessor = FieldUtil.accessor(field);
+            if (!accessor.isWritable()) {
+                continue;
+            }
+            if (field.getType().isPrimitive()) {
+                primitives.add(accessor);
+            } else {
+                references.add(accessor);
+            }
+        }
+        FieldAccessor[] primitiveArray = primitives.toArray(new FieldAccessor[0]);
+        return new Plan(BEAN, factory, new CopyPlan(type, type, primitiveArray, primitiveArray),
+                references.toArray(new FieldAccessor[0]), null);
+    }
+
+    /**
+     * 非公开JDK容器的重建计划。Arrays.asList重建为定长列表；不可修改、不可变与同步容器按元素重建到同类可变容器后重新包装。
+     *
+     * @return 重建计划，不是已知的容器类型时返回null
+     */
+    private static Plan rebuildPlan(Class<?> type, boolean collection) {
+        String name = type.getName();
+        byte wrapper;
+        if (name.equals("java.util.Arrays$ArrayList")) {
+            wrapper = WRAP_FIXED_SIZE;
+        } else if (name.startsWith("java.util.Collections$Unmodifiable") || name.startsWith("java.util.Collections$Empty")
+                || name.startsWith("java.util.Collections$Singleton") || name.startsWith("java.util.ImmutableCollections$")) {
+            wrapper = WRAP_UNMODIFIABLE;
+        } else if (name.startsWith("java.util.Collections$Synchronized")) {
+            wrapper = WRAP_SYNCHRONIZED;
+        } else {
+            return null;
+        }
+        for (Class<?> view : VIEWS) {
+            if (view.isAssignableFrom(type)) {
+                return new Plan(collection ? COLLECTION : MAP, view, wrapper);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 创建与容器接口对应的空可变容器，有序容器沿用原容器的比较器
+     */
+    @SuppressWarnings("unchecked")
+    private static Object container(Class<?> view, Object original) {
+        if (view == List.class || view == Collection.class) {
+            return new ArrayList<>(((Collection<?>) original).size());
+        } else if (view == NavigableSet.class || view == SortedSet.class) {
+            return new TreeSet<>(((SortedSet<Object>) original).comparator());
+        } else if (view == Set.class) {
+            return new LinkedHashSet<>();
+        } else if (view == NavigableMap.class || view == SortedMap.class) {
+            return new TreeMap<>(((SortedMap<Object, Object>) original).comparator());
+        }
+        return new LinkedHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object wrap(Class<?> view, byte wrapper, Object target) {
+        if (wrapper == WRAP_UNMODIFIABLE) {
+            if (view == List.class) {
+                return Collections.unmodifiableList((List<Object>) target);
+            } else if (view == NavigableSet.class) {
+                return Collections.unmodifiableNavigableSet((NavigableSet<Object>) target);
+            } else if (view == SortedSet.class) {
+                return Collections.unmodifiableSortedSet((SortedSet<Object>) target);
+            } else if (view == Set.class) {
+                return Collections.unmodifiableSet((Set<Object>) target);
+            } else if (view == NavigableMap.class) {
+                return Collections.unmodifiableNavigableMap((NavigableMap<Object, Object>) target);
+            } else if (view == SortedMap.class) {
+                return Collections.unmodifiableSortedMap((SortedMap<Object, Object>) target);
+            } else if (view == Map.class) {
+                return Collections.unmodifiableMap((Map<Object, Object>) target);
+            }
+            return Collections.unmodifiableCollection((Collection<Object>) target);
+        } else if (wrapper == WRAP_SYNCHRONIZED) {
+            if (view == List.class) {
+                return Collections.synchronizedList((List<Object>) target);
+            } else if (view == NavigableSet.class) {
+                return Collections.synchronizedNavigableSet((NavigableSet<Object>) target);
+            } else if (view == SortedSet.class) {
+                return Collections.synchronizedSortedSet((SortedSet<Object>) target);
+            } else if (view == Set.class) {
+                return Collections.synchronizedSet((Set<Object>) target);
+            } else if (view == NavigableMap.class) {
+                return Collections.synchronizedNavigableMap((NavigableMap<Object, Object>) target);
+            } else if (view == SortedMap.class) {
+                return Collections.synchronizedSortedMap((SortedMap<Object, Object>) target);
+            } else if (view == Map.class) {
+                return Collections.synchronizedMap((Map<Object, Object>) target);
+            }
+            return Collections.synchronizedCollection((Collection<Object>) target);
+        }
+        return target;
+    }
+
+    /**
+     * 拷贝不含引用的JDK可变值对象
+     */
+    private static Object copyValue(Object value) {
+        if (value instanceof StringBuilder) {
+            return new StringBuilder((StringBuilder) value);
+        } else if (value instanceof StringBuffer) {
+            return new StringBuffer((StringBuffer) value);
+        } else if (value instanceof AtomicBoolean) {
+            return new AtomicBoolean(((AtomicBoolean) value).get());
+        } else if (value instanceof AtomicInteger) {
+            return new AtomicInteger(((AtomicInteger) value).get());
+        } else if (value instanceof AtomicLong) {
+            return new AtomicLong(((AtomicLong) value).get());
+        } else if (value instanceof AtomicIntegerArray) {
+            AtomicIntegerArray from = (AtomicIntegerArray) value;
+            int[] array = new int[from.length()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = from.get(i);
+            }
+            return new AtomicIntegerArray(array);
+        }
+        AtomicLongArray from = (AtomicLongArray) value;
+        long[] array = new long[from.length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = from.get(i);
+        }
+        return new AtomicLongArray(array);
+    }
+
+    /**
+     * 判断类及其父类是否没有实例属性，这类对象没有可拷贝的状态
+     */
+    private static boolean stateless(Class<?> type) {
+        for (Field field : FieldUtil.getAllFields(type)) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取可直接调用的公开clone方法，不存在时返回null
+     */
+    private static Method publicClone(Class<?> type) {
+        if (!Cloneable.class.isAssignableFrom(type)) {
+            return null;
+        }
+        try {
+            Method clone = type.getMethod("clone");
+            return Modifier.isPublic(clone.getDeclaringClass().getModifiers()) ? clone : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取公开类的公开无参构造器工厂，无法访问时返回null
+     */
+    private static InstanceFactory<?> publicFactory(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            type.getConstructor();
+            return ReflectUtil.factory(type);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 类的深拷贝计划
+     */
+    private static final class Plan {
+
+        private final byte kind;
+
+        /**
+         * 拷贝对象工厂，集合、映射表与普通对象使用
+         */
+        private final InstanceFactory<?> factory;
+
+        /**
+         * 基础类型属性的拷贝计划，普通对象使用
+         */
+        private final CopyPlan primitives;
+
+        /**
+         * 引用类型属性的访问器，普通对象使用
+         */
+        private final FieldAccessor[] references;
+
+        /**
+         * 公开的clone方法，JDK可克隆对象与有状态的容器使用
+         */
+        private final Method clone;
+
+        /**
+         * 重建容器时匹配的容器接口，非公开JDK容器使用
+         */
+        private final Class<?> view;
+
+        /**
+         * 重建容器的包装方式，非公开JDK容器使用
+         */
+        private final byte wrapper;
+
+        Plan(byte kind) {
+            this(kind, null, null, null, null);
+        }
+
+        Plan(byte kind, Class<?> view, byte wrapper) {
+            this.kind = kind;
+            this.factory = null;
+            this.primitives = null;
+            this.references = null;
+            this.clone = null;
+            this.view = view;
+            this.wrapper = wrapper;
+        }
+
+        Plan(byte kind, InstanceFactory<?> factory, CopyPlan primitives, FieldAccessor[] references, Method clone) {
+            this.kind = kind;
+            this.factory = factory;
+            this.primitives = primitives;
+            this.references = references;
+            this.clone = clone;
+            this.view = null;
+            this.wrapper = WRAP_NONE;
+        }
+
+        Object cloneOf(Object value) {
+            try {
+                return clone.invoke(value);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -1,31 +1,73 @@
 package idea.verlif.reflection.util;
 
 import idea.verlif.reflection.domain.ClassGrc;
+import idea.verlif.reflection.domain.ClassMetadata;
+import idea.verlif.reflection.domain.FieldAccessor;
 import idea.verlif.reflection.domain.FieldGrc;
 import idea.verlif.reflection.domain.SFunction;
+import idea.verlif.reflection.metrics.CacheRegion;
+import idea.verlif.reflection.metrics.Resolution;
 
 import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * 属性工具
  */
 public class FieldUtil {
 
+    /**
+     * 类属性缓存表，包括父类属性
+     */
+    private static final ClassValue<MemberTable<Field>> FIELD_TABLE = new ClassValue<MemberTable<Field>>() {
+        @Override
+        protected MemberTable<Field> computeValue(Class<?> type) {
+            Class<?> superclass = type.getSuperclass();
+            return MemberTable.of(type.getDeclaredFields(), superclass == null ? null : get(superclass));
+        }
+    };
+
+    /**
+     * 属性名索引，包括父类属性。子类属性隐藏父类的同名属性，索引中不存在的属性名即为不存在的属性
+     */
+    private static final ClassValue<Map<String, Field>> FIELD_INDEX = new ClassValue<Map<String, Field>>() {
+        @Override
+        protected Map<String, Field> computeValue(Class<?> type) {
+            long start = MetricsUtil.start();
+            List<Field> fields = getAllFields(type);
+            Map<String, Field> index = new HashMap<>(fields.size() * 2);
+            // 子类属性在前
+            for (Field field : fields) {
+                index.putIfAbsent(field.getName(), field);
+            }
+            MetricsUtil.resolved(Resolution.FIELD, type, start);
+            return index;
+        }
+    };
+
+    /**
+     * 属性访问器缓存，以属性声明类分组
+     */
+    private static final ClassValue<Map<String, FieldAccessor>> ACCESSORS = new ClassValue<Map<String, FieldAccessor>>() {
+        @Override
+        protected Map<String, FieldAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      * 获取类的所有属性
      *
      * @param cla 目标类
-     * @return 目标类的属性列表，包括父类
+     * @return 目标类的属性列表，包括父类。列表不可修改
      */
     public static List<Field> getAllFields(Class<?> cla) {
-        return getAllFields(cla, null);
+        return FIELD_TABLE.get(cla).all();
     }
 
     /**
@@ -36,36 +78,37 @@ public class FieldUtil {
      * @return 目标类的属性列表，包括父类
      */
     public static List<Field> getAllFields(Class<?> cla, Predicate<Field> filter) {
-        List<Field> fields = new ArrayList<>();
-        do {
-            Collections.addAll(fields, cla.getDeclaredFields());
-            cla = cla.getSuperclass();
-        } while (cla != null);
+        return getAllFields(cla, filter, false);
+    }
+
+    /**
+     * 通过过滤获取类的所有属性
+     *
+     * @param cla    目标类
+     * @param filter 属性过滤
+     * @param cached 是否缓存过滤结果。缓存以过滤器对象为键，每个类最多缓存16个过滤器，因此只应对常量过滤器开启
+     * @return 目标类的属性列表，包括父类。开启缓存时列表不可修改
+     */
+    public static List<Field> getAllFields(Class<?> cla, Predicate<Field> filter, boolean cached) {
+        MemberTable<Field> table = FIELD_TABLE.get(cla);
         if (filter == null) {
-            return fields;
+            return table.all();
+        } else if (cached) {
+            return table.filterCached(filter);
         } else {
-            return fields.stream().filter(filter).collect(Collectors.toList());
+            return table.filter(filter);
         }
     }
 
     /**
-     * 从类中获取属性对象
+     * 从类中获取属性对象。子类与父类存在同名属性时返回子类属性。
      *
      * @param target    目标类
      * @param fieldName 属性名
-     * @return 属性对象
+     * @return 属性对象，不存在时返回null
      */
     public static Field getField(Class<?> target, String fieldName) {
-        Field field = null;
-        do {
-            try {
-                field = target.getDeclaredField(fieldName);
-                break;
-            } catch (NoSuchFieldException ignored) {
-                target = target.getSuperclass();
-            }
-        } while (target != null);
-        return field;
+        return FIELD_INDEX.get(target).get(fieldName);
     }
 
     /**
@@ -93,19 +136,7 @@ public class FieldUtil {
      * @throws NoSuchFieldException 在目标对象中不存在对应属性
      */
     public static Object getFieldValue(Object target, Field field) throws NoSuchFieldException {
-        Object value = null;
-        boolean acc = field.isAccessible();
-        if (!acc) {
-            field.setAccessible(true);
-        }
-        try {
-            value = field.get(target);
-        } catch (IllegalAccessException ignored) {
-        }
-        if (!acc) {
-            field.setAccessible(false);
-        }
-        return value;
+        return accessor(field).get(target);
     }
 
     /**
@@ -133,17 +164,32 @@ public class FieldUtil {
      * @throws NoSuchFieldException 在目标对象中不存在对应属性
      */
     public static void setFieldValue(Object target, Field field, Object value) throws NoSuchFieldException {
-        boolean acc = field.isAccessible();
-        if (!acc) {
-            field.setAccessible(true);
+        FieldAccessor accessor = accessor(field);
+        if (accessor.isWritable()) {
+            accessor.set(target, value);
         }
-        try {
-            field.set(target, value);
-        } catch (IllegalAccessException ignored) {
-        }
-        if (!acc) {
-            field.setAccessible(false);
+    }
+
+    /**
+     * 获取属性的访问器。访问器按属性缓存，读写时不会修改属性的访问权限。
+     * 属性声明类存在编译期生成的元数据表时，访问器创建时即绑定该表。
+     *
+     * @param field 属性对象
+     * @return 属性访问器
+     */
+    public static FieldAccessor accessor(Field field) {
+        Map<String, FieldAccessor> accessorMap = ACCESSORS.get(field.getDeclaringClass());
+        FieldAccessor accessor = accessorMap.get(field.getName());
+        if (accessor == null) {
+            accessor = new FieldAccessor(field, MetadataTables.of(field.getDeclaringClass()));
+            FieldAccessor old = accessorMap.putIfAbsent(field.getName(), accessor);
+            if (old != null) {
+                accessor = old;
+            } else {
+                WarmupUtil.recordField(field);
+            }
         }
+        return accessor;
     }
 
     /**
@@ -154,23 +200,43 @@ public class FieldUtil {
      * @return 属性对象
      */
     public static <T> Field getFieldFromLambda(SFunction<T, ?> function) {
+        LambdaCache cache = LambdaCache.of(function.getClass());
+        Field field = cache.field;
+        if (field == null) {
+            MetricsUtil.miss(CacheRegion.LAMBDA, function.getClass());
+            long start = MetricsUtil.start();
+            field = resolveFieldFromLambda(function);
+            cache.field = field;
+            MetricsUtil.resolved(Resolution.LAMBDA, field.getDeclaringClass(), start);
+        } else {
+            MetricsUtil.hit(CacheRegion.LAMBDA, function.getClass());
+        }
+        return field;
+    }
+
+    private static Field resolveFieldFromLambda(SFunction<?, ?> function) {
         SerializedLambda serializedLambda = ReflectUtil.getSerializedLambda(function);
         // 从Lambda表达式中获取属性名
         String implMethodName = serializedLambda.getImplMethodName();
         // 确保方法是符合规范的get方法，boolean类型是is开头
-        if (!implMethodName.startsWith("is") && !implMethodName.startsWith("get")) {
+        int prefixLen;
+        if (implMethodName.startsWith("is")) {
+            prefixLen = 2;
+        } else if (implMethodName.startsWith("get")) {
+            prefixLen = 3;
+        } else {
+            throw new RuntimeException("It's not the standard name - " + implMethodName);
+        }
+        if (implMethodName.length() == prefixLen) {
             throw new RuntimeException("It's not the standard name - " + implMethodName);
         }
 
         // 构建属性名
-        int prefixLen = implMethodName.startsWith("is") ? 2 : 3;
-        String fieldName = implMethodName.substring(prefixLen);
-        String firstChar = fieldName.substring(0, 1);
-        fieldName = fieldName.replaceFirst(firstChar, firstChar.toLowerCase());
+        String fieldName = Character.toLowerCase(implMethodName.charAt(prefixLen)) + implMethodName.substring(prefixLen + 1);
         // 获取属性
         try {
-            return Class.forName(serializedLambda.getImplClass().replace("/", ".")).getDeclaredField(fieldName);
-        } catch (ClassNotFoundException | NoSuchFieldException e) {
+            return ReflectUtil.getImplClass(function, serializedLambda).getDeclaredField(fieldName);
+        } catch (NoSuchFieldException e) {
             throw new RuntimeException(e);
         }
     }
@@ -205,12 +271,31 @@ public class FieldUtil {
      * @return 属性的泛型信息
      */
     public static FieldGrc getFieldGrc(Field field, Map<String, ClassGrc> genericsMap) throws NoSuchFieldException, IllegalAccessException, ClassNotFoundException {
-        String sig = SignatureUtil.getSignature(field);
-        if (sig == null) {
-            return new FieldGrc(field);
+        long start = MetricsUtil.start();
+        ClassGrc generated = generatedFieldGrc(field, genericsMap);
+        String sig = generated == null ? SignatureUtil.getSignature(field) : null;
+        FieldGrc fieldGrc;
+        if (generated != null) {
+            fieldGrc = new FieldGrc(field, generated);
+        } else if (sig == null) {
+            fieldGrc = new FieldGrc(field);
         } else {
-            ClassGrc classGrc = SignatureUtil.parseClassBySignature(sig.substring(0, sig.length() - 1), genericsMap);
-            return new FieldGrc(field, classGrc.getTarget(), classGrc.getGenericsInfos());
+            ClassGrc classGrc = SignatureUtil.parseClassBySignature(sig, genericsMap, field.getDeclaringClass());
+            fieldGrc = new FieldGrc(field, classGrc);
+        }
+        MetricsUtil.resolved(Resolution.FIELD_GRC, field.getDeclaringClass(), start);
+        return fieldGrc;
+    }
+
+    /**
+     * 从编译期生成的元数据表中获取属性泛型信息
+     */
+    private static ClassGrc generatedFieldGrc(Field field, Map<String, ClassGrc> genericsMap) {
+        ClassMetadata metadata = MetadataTables.of(field.getDeclaringClass());
+        if (metadata == null) {
+            return null;
         }
+        int index = metadata.indexOf(field.getName());
+        return index == -1 ? null : metadata.getFieldGrc(index, genericsMap);
     }
 }
@@ -0,0 +1,48 @@
+package idea.verlif.reflection.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Lambda解析缓存。同一Lambda实现类的所有实例都指向同一个实现方法，因此解析结果可以按类缓存。
+ */
+final class LambdaCache {
+
+    private static final ClassValue<LambdaCache> CACHE = new ClassValue<LambdaCache>() {
+        @Override
+        protected LambdaCache computeValue(Class<?> type) {
+            Method writeReplace;
+            try {
+                writeReplace = type.getDeclaredMethod("writeReplace");
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+            // 方法对象仅由缓存持有，开启后不再还原
+            writeReplace.setAccessible(true);
+            return new LambdaCache(writeReplace);
+        }
+    };
+
+    /**
+     * Lambda类的序列化方法，已开启访问权限
+     */
+    final Method writeReplace;
+
+    /**
+     * Lambda对应的属性，未解析时为null
+     */
+    volatile Field field;
+
+    /**
+     * Lambda对应的方法，未解析时为null
+     */
+    volatile Method method;
+
+    private LambdaCache(Method writeReplace) {
+        this.writeReplace = writeReplace;
+    }
+
+    static LambdaCache of(Class<?> lambdaClass) {
+        return CACHE.get(lambdaClass);
+    }
+}
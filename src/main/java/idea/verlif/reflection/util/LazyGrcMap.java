@@ -0,0 +1,130 @@
+package idea.verlif.reflection.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 延迟解析的泛型信息表。成员索引在首次访问时建立，每个成员的泛型信息在首次获取时解析并缓存。
+ * 表不可修改。
+ *
+ * @param <M> 成员类型
+ * @param <V> 泛型信息类型
+ */
+final class LazyGrcMap<M, V> extends AbstractMap<String, V> {
+
+    /**
+     * 成员索引构建方法
+     */
+    private final Supplier<Map<String, M>> indexer;
+
+    /**
+     * 成员泛型信息解析方法
+     */
+    private final Resolver<M, V> resolver;
+
+    /**
+     * 已解析的泛型信息
+     */
+    private final Map<String, V> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * 成员索引
+     */
+    private volatile Map<String, M> members;
+
+    private Set<Entry<String, V>> entrySet;
+
+    LazyGrcMap(Supplier<Map<String, M>> indexer, Resolver<M, V> resolver) {
+        this.indexer = indexer;
+        this.resolver = resolver;
+    }
+
+    private Map<String, M> members() {
+        Map<String, M> map = members;
+        if (map == null) {
+            map = indexer.get();
+            members = map;
+        }
+        return map;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = resolved.get(key);
+        if (value == null) {
+            M member = members().get(key);
+            if (member == null) {
+                return null;
+            }
+            try {
+                value = resolver.resolve(member);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+            V old = resolved.putIfAbsent((String) key, value);
+            if (old != null) {
+                value = old;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return members().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return members().size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return members().keySet();
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    Iterator<String> keys = members().keySet().iterator();
+                    return new Iterator<Entry<String, V>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            String key = keys.next();
+                            return new SimpleImmutableEntry<>(key, get(key));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return LazyGrcMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * 成员泛型信息解析方法
+     */
+    @FunctionalInterface
+    interface Resolver<M, V> {
+
+        V resolve(M member) throws ReflectiveOperationException;
+    }
+}
@@ -0,0 +1,94 @@
+package idea.verlif.reflection.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 成员缓存表。保存类及其父类的全部成员，并可按过滤器缓存过滤结果。
+ *
+ * @param <M> 成员类型
+ */
+final class MemberTable<M> {
+
+    /**
+     * 每个成员表最多缓存的过滤结果数量
+     */
+    static final int MAX_FILTERED = 16;
+
+    /**
+     * 类及其父类的全部成员，子类成员在前
+     */
+    private final List<M> members;
+
+    /**
+     * 过滤结果缓存，以过滤器对象本身为键，最多缓存{@link #MAX_FILTERED}个过滤器
+     */
+    private final Map<Predicate<M>, List<M>> filtered = new ConcurrentHashMap<>();
+
+    MemberTable(List<M> members) {
+        this.members = Collections.unmodifiableList(members);
+    }
+
+    /**
+     * 由当前类声明的成员与父类成员表合并成新的成员表
+     *
+     * @param declared 当前类声明的成员
+     * @param parent   父类成员表，可为null
+     */
+    static <M> MemberTable<M> of(M[] declared, MemberTable<M> parent) {
+        int parentSize = parent == null ? 0 : parent.members.size();
+        List<M> list = new ArrayList<>(declared.length + parentSize);
+        Collections.addAll(list, declared);
+        if (parent != null) {
+            list.addAll(parent.members);
+        }
+        return new MemberTable<>(list);
+    }
+
+    /**
+     * @return 不可修改的全部成员列表
+     */
+    List<M> all() {
+        return members;
+    }
+
+    /**
+     * 获取过滤后的成员列表
+     *
+     * @param filter 成员过滤
+     * @return 新的可修改成员列表
+     */
+    List<M> filter(Predicate<M> filter) {
+        List<M> list = new ArrayList<>();
+        for (M member : members) {
+            if (filter.test(member)) {
+                list.add(member);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 获取过滤后的成员列表，并以过滤器为键缓存结果。缓存已满时不再缓存新的过滤器，每次调用重新过滤
+     *
+     * @param filter 成员过滤，需为可复用的同一对象
+     * @return 不可修改的成员列表
+     */
+    List<M> filterCached(Predicate<M> filter) {
+        List<M> list = filtered.get(filter);
+        if (list == null) {
+            list = Collections.unmodifiableList(filter(filter));
+            if (filtered.size() < MAX_FILTERED) {
+                List<M> old = filtered.putIfAbsent(filter, list);
+                if (old != null) {
+                    list = old;
+                }
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,41 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.annotation.Reflective;
+import idea.verlif.reflection.domain.ClassMetadata;
+
+import java.util.Optional;
+
+/**
+ * 编译期生成的元数据表。只查找标记了Reflective的类，未生成表时结果同样会被缓存。
+ */
+final class MetadataTables {
+
+    private static final ClassValue<Optional<ClassMetadata>> TABLES = new ClassValue<Optional<ClassMetadata>>() {
+        @Override
+        protected Optional<ClassMetadata> computeValue(Class<?> type) {
+            if (!type.isAnnotationPresent(Reflective.class)) {
+                return Optional.empty();
+            }
+            try {
+                Class<?> cl = Class.forName(type.getName() + ClassMetadata.SUFFIX, true, type.getClassLoader());
+                return Optional.of((ClassMetadata) cl.getDeclaredConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                // 未使用注解处理器编译
+                return Optional.empty();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    };
+
+    private MetadataTables() {
+    }
+
+    /**
+     * @param target 目标类
+     * @return 目标类的元数据表，不存在时返回null
+     */
+    static ClassMetadata of(Class<?> target) {
+        return TABLES.get(target).orElse(null);
+    }
+}
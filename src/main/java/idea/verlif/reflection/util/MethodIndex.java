@@ -0,0 +1,253 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.metrics.CacheRegion;
+import idea.verlif.reflection.metrics.Resolution;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 方法查找索引。按方法名分组，每组再按参数数量分桶；最后一个参数是数组的方法额外标记为可省略数组的候选方法。<br/>
+ * 解析时按Java的方法调用规则分阶段匹配：先只允许子类与基础类型宽化，再允许装箱拆箱，最后尝试省略末尾的数组参数；
+ * 同一阶段有多个适用方法时选择最具体的方法。<br/>
+ * 每个方法名的解析结果按参数类型缓存，不存在的方法名不会缓存。每组最多缓存{@link #MAX_RESOLVED}个结果，
+ * 参数类型不是由目标类的类加载器或其父加载器加载时不缓存，避免目标类的缓存使参数类型的类加载器无法回收。
+ */
+final class MethodIndex {
+
+    /**
+     * 每个方法名最多缓存的解析结果数量
+     */
+    static final int MAX_RESOLVED = 256;
+
+    private static final Method[] EMPTY = new Method[0];
+
+    /**
+     * 索引所属类
+     */
+    private final Class<?> type;
+
+    /**
+     * 方法名与重载方法组的对应表
+     */
+    private final Map<String, Overloads> overloads;
+
+    private MethodIndex(Class<?> type, Map<String, Overloads> overloads) {
+        this.type = type;
+        this.overloads = overloads;
+    }
+
+    static MethodIndex of(Class<?> type) {
+        // 子类方法在前，被覆盖的父类方法与相同签名的方法只保留最先出现的，桥接方法让位于同签名的非桥接方法
+        Map<String, Map<List<Class<?>>, Method>> grouped = new HashMap<>();
+        for (Method method : MethodUtil.getAllMethods(type)) {
+            Map<List<Class<?>>, Method> signatures = grouped.computeIfAbsent(method.getName(), k -> new LinkedHashMap<>());
+            List<Class<?>> signature = Arrays.asList(method.getParameterTypes());
+            Method old = signatures.get(signature);
+            if (old == null || old.isBridge() && !method.isBridge()) {
+                signatures.put(signature, method);
+            }
+        }
+        Map<String, Overloads> overloads = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<String, Map<List<Class<?>>, Method>> entry : grouped.entrySet()) {
+            overloads.put(entry.getKey(), new Overloads(entry.getValue().values()));
+        }
+        return new MethodIndex(type, overloads);
+    }
+
+    /**
+     * 解析方法
+     *
+     * @param name       方法名
+     * @param paramTypes 参数类型，null元素可匹配任意非基础类型参数
+     * @return 最具体的适用方法，不存在时返回null
+     */
+    Method resolve(String name, Class<?>[] paramTypes) {
+        Overloads group = overloads.get(name);
+        if (group == null) {
+            return null;
+        }
+        Optional<Method> method = group.resolved.get(new ParamKey(paramTypes));
+        if (method != null) {
+            MetricsUtil.hit(CacheRegion.METHOD, type);
+            return method.orElse(null);
+        }
+        MetricsUtil.miss(CacheRegion.METHOD, type);
+        long start = MetricsUtil.start();
+        method = Optional.ofNullable(resolve(group, paramTypes));
+        MetricsUtil.resolved(Resolution.METHOD, type, start);
+        if (group.resolved.size() < MAX_RESOLVED && ReflectUtil.isCacheable(type, paramTypes)) {
+            // 参数类型数组可能被调用方复用，缓存时复制
+            group.resolved.putIfAbsent(new ParamKey(paramTypes.clone()), method);
+        }
+        return method.orElse(null);
+    }
+
+    private static Method resolve(Overloads group, Class<?>[] paramTypes) {
+        int count = paramTypes.length;
+        Method[] fixed = count < group.byArity.length ? group.byArity[count] : EMPTY;
+        Method method = mostSpecific(fixed, paramTypes, false);
+        if (method == null) {
+            method = mostSpecific(fixed, paramTypes, true);
+        }
+        if (method == null) {
+            method = mostSpecific(count + 1 < group.omittable.length ? group.omittable[count + 1] : EMPTY, paramTypes, true);
+        }
+        return method;
+    }
+
+    /**
+     * 从候选方法中选择适用且最具体的方法。有多个同样具体的方法时返回最先出现的，即子类中声明的方法。
+     *
+     * @param candidates 候选方法
+     * @param paramTypes 参数类型
+     * @param boxing     是否允许装箱拆箱
+     */
+    private static Method mostSpecific(Method[] candidates, Class<?>[] paramTypes, boolean boxing) {
+        Method first = null;
+        List<Method> applicable = null;
+        for (Method candidate : candidates) {
+            if (!applicable(candidate.getParameterTypes(), paramTypes, boxing)) {
+                continue;
+            }
+            if (first == null) {
+                first = candidate;
+            } else {
+                if (applicable == null) {
+                    applicable = new ArrayList<>();
+                    applicable.add(first);
+                }
+                applicable.add(candidate);
+            }
+        }
+        if (applicable == null) {
+            return first;
+        }
+        APPLICABLE_LOOP:
+        for (Method candidate : applicable) {
+            Class<?>[] types = candidate.getParameterTypes();
+            for (Method other : applicable) {
+                Class<?>[] otherTypes = other.getParameterTypes();
+                if (other != candidate && moreSpecific(otherTypes, types) && !moreSpecific(types, otherTypes)) {
+                    continue APPLICABLE_LOOP;
+                }
+            }
+            return candidate;
+        }
+        return first;
+    }
+
+    private static boolean applicable(Class<?>[] types, Class<?>[] paramTypes, boolean boxing) {
+        for (int i = 0; i < paramTypes.length; i++) {
+            Class<?> type = types[i];
+            Class<?> paramType = paramTypes[i];
+            if (paramType == null) {
+                if (type.isPrimitive()) {
+                    return false;
+                }
+            } else if (boxing) {
+                if (!ReflectUtil.isAssignable(type, paramType)) {
+                    return false;
+                }
+            } else if (type.isPrimitive() != paramType.isPrimitive() || !ReflectUtil.isAssignable(type, paramType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断方法a的参数是否都可以传给方法b，只比较两者共有的参数
+     */
+    private static boolean moreSpecific(Class<?>[] a, Class<?>[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i].isPrimitive() != b[i].isPrimitive() || !ReflectUtil.isAssignable(b[i], a[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 同名的重载方法组
+     */
+    private static final class Overloads {
+
+        /**
+         * 以参数数量为下标的方法桶
+         */
+        private final Method[][] byArity;
+
+        /**
+         * 以参数数量为下标的、最后一个参数是数组的方法桶，调用时可省略末尾的数组参数
+         */
+        private final Method[][] omittable;
+
+        /**
+         * 以参数类型为键的解析结果缓存
+         */
+        private final Map<ParamKey, Optional<Method>> resolved = new ConcurrentHashMap<>();
+
+        Overloads(Collection<Method> methods) {
+            int max = 0;
+            for (Method method : methods) {
+                max = Math.max(max, method.getParameterCount());
+            }
+            List<List<Method>> arity = new ArrayList<>(max + 1);
+            List<List<Method>> arrays = new ArrayList<>(max + 1);
+            for (int i = 0; i <= max; i++) {
+                arity.add(new ArrayList<>(1));
+                arrays.add(new ArrayList<>(0));
+            }
+            for (Method method : methods) {
+                int count = method.getParameterCount();
+                arity.get(count).add(method);
+                if (count > 0 && method.getParameterTypes()[count - 1].isArray()) {
+                    arrays.get(count).add(method);
+                }
+            }
+            this.byArity = toBuckets(arity);
+            this.omittable = toBuckets(arrays);
+        }
+
+        private static Method[][] toBuckets(List<List<Method>> lists) {
+            Method[][] buckets = new Method[lists.size()][];
+            for (int i = 0; i < buckets.length; i++) {
+                List<Method> list = lists.get(i);
+                buckets[i] = list.isEmpty() ? EMPTY : list.toArray(EMPTY);
+            }
+            return buckets;
+        }
+    }
+
+    private static final class ParamKey {
+
+        private final Class<?>[] paramTypes;
+
+        private final int hash;
+
+        private ParamKey(Class<?>[] paramTypes) {
+            this.paramTypes = paramTypes;
+            this.hash = Arrays.hashCode(paramTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ParamKey)) {
+                return false;
+            }
+            ParamKey key = (ParamKey) o;
+            return hash == key.hash && Arrays.equals(paramTypes, key.paramTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,35 +1,78 @@
 package idea.verlif.reflection.util;
 
+import idea.verlif.reflection.domain.ActualClass;
 import idea.verlif.reflection.domain.ClassGrc;
+import idea.verlif.reflection.domain.ClassMetadata;
 import idea.verlif.reflection.domain.MethodGrc;
+import idea.verlif.reflection.domain.MethodInvoker;
+import idea.verlif.reflection.domain.PropertyDescriptor;
 import idea.verlif.reflection.domain.SFunction;
+import idea.verlif.reflection.metrics.CacheRegion;
+import idea.verlif.reflection.metrics.Resolution;
 
+import java.lang.invoke.MethodType;
 import java.lang.invoke.SerializedLambda;
-import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * 方法工具类
  */
 public class MethodUtil {
 
-    private static final Pattern PARAMETER_TYPE_PATTERN = Pattern.compile("\\((.*)\\).*");
+    /**
+     * 类方法缓存表，包括父类方法
+     */
+    private static final ClassValue<MemberTable<Method>> METHOD_TABLE = new ClassValue<MemberTable<Method>>() {
+        @Override
+        protected MemberTable<Method> computeValue(Class<?> type) {
+            Class<?> superclass = type.getSuperclass();
+            return MemberTable.of(type.getDeclaredMethods(), superclass == null ? null : get(superclass));
+        }
+    };
+
+    /**
+     * 方法查找索引缓存
+     */
+    private static final ClassValue<MethodIndex> METHOD_INDEX = new ClassValue<MethodIndex>() {
+        @Override
+        protected MethodIndex computeValue(Class<?> type) {
+            return MethodIndex.of(type);
+        }
+    };
+
+    /**
+     * 属性描述表缓存
+     */
+    private static final ClassValue<PropertyTable> PROPERTIES = new ClassValue<PropertyTable>() {
+        @Override
+        protected PropertyTable computeValue(Class<?> type) {
+            return PropertyTable.of(type);
+        }
+    };
+
+    /**
+     * 方法执行器缓存，以方法声明类分组
+     */
+    private static final ClassValue<Map<Method, MethodInvoker>> INVOKERS = new ClassValue<Map<Method, MethodInvoker>>() {
+        @Override
+        protected Map<Method, MethodInvoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     /**
      * 获取类的所有方法
      *
      * @param cla 目标类
-     * @return 目标类的方法列表，包括父类
+     * @return 目标类的方法列表，包括父类。列表不可修改
      */
     public static List<Method> getAllMethods(Class<?> cla) {
-        return getAllMethods(cla, null);
+        return METHOD_TABLE.get(cla).all();
     }
 
     /**
@@ -40,15 +83,25 @@ public class MethodUtil {
      * @return 目标类的方法列表，包括父类
      */
     public static List<Method> getAllMethods(Class<?> cla, Predicate<Method> filter) {
-        List<Method> methods = new ArrayList<>();
-        do {
-            Collections.addAll(methods, cla.getDeclaredMethods());
-            cla = cla.getSuperclass();
-        } while (cla != null);
+        return getAllMethods(cla, filter, false);
+    }
+
+    /**
+     * 通过过滤获取类的所有方法
+     *
+     * @param cla    目标类
+     * @param filter 方法过滤
+     * @param cached 是否缓存过滤结果。缓存以过滤器对象为键，每个类最多缓存16个过滤器，因此只应对常量过滤器开启
+     * @return 目标类的方法列表，包括父类。开启缓存时列表不可修改
+     */
+    public static List<Method> getAllMethods(Class<?> cla, Predicate<Method> filter, boolean cached) {
+        MemberTable<Method> table = METHOD_TABLE.get(cla);
         if (filter == null) {
-            return methods;
+            return table.all();
+        } else if (cached) {
+            return table.filterCached(filter);
         } else {
-            return methods.stream().filter(filter).collect(Collectors.toList());
+            return table.filter(filter);
         }
     }
 
@@ -60,53 +113,28 @@ public class MethodUtil {
      * @return 方法泛型信息
      */
     public static MethodGrc getMethodGrc(Method method, Class<?> target) throws ClassNotFoundException, IllegalAccessException, NoSuchFieldException {
-        Map<String, ClassGrc> genericsMap = ReflectUtil.getGenericsMap(target);
-        String sig = SignatureUtil.getSignature(method);
-        // 有泛型类
-        if (sig != null) {
-            // 解析泛型
-            if (sig.charAt(0) == '<') {
-                String generics = sig.substring(1, sig.indexOf('>') - 1);
-                sig = sig.substring(generics.length() + 3);
-                List<String> sigList = SignatureUtil.splitSignature(generics);
-                for (String s : sigList) {
-                    if (s.length() > 0) {
-                        int i = s.indexOf(':');
-                        String name = s.substring(0, i);
-                        String className = s.substring(i + 2).replace("/", ".");
-                        Class<?> aClass = Class.forName(className);
-                        genericsMap.put(name, new ClassGrc(aClass));
-                    }
-                }
-            }
-            // 解析参数
-            ClassGrc[] infos = new ClassGrc[0];
-            if (sig.charAt(0) == '(') {
-                int end = sig.indexOf(')');
-                // 无参方法
-                if (end == 1) {
-                    sig = sig.substring(2);
-                } else {
-                    String params = sig.substring(1, end - 1);
-                    sig = sig.substring(params.length() + 3);
-                    List<String> sigList = SignatureUtil.splitSignature(params);
-                    infos = new ClassGrc[sigList.size()];
-                    for (int i = 0; i < sigList.size(); i++) {
-                        ClassGrc info = SignatureUtil.parseClassBySignature(sigList.get(i), genericsMap);
-                        infos[i] = info;
-                    }
-                }
-            }
-            ClassGrc info = null;
-            // 解析返回值
-            if (!sig.isEmpty()) {
-                // 是否是泛型
-                String sigName = sig.substring(0, sig.length() - 1);
-                if (!sigName.isEmpty()) {
-                    info = SignatureUtil.parseClassBySignature(sigName, genericsMap);
-                }
-            }
-            return new MethodGrc(method, info, infos);
+        return getMethodGrc(method, ReflectUtil.getGenericsMap(target));
+    }
+
+    /**
+     * 获取方法泛型信息
+     *
+     * @param method      目标方法
+     * @param genericsMap 方法所属类的泛型表
+     * @return 方法泛型信息
+     */
+    public static MethodGrc getMethodGrc(Method method, Map<String, ClassGrc> genericsMap) throws ClassNotFoundException, IllegalAccessException {
+        long start = MetricsUtil.start();
+        ClassMetadata metadata = MetadataTables.of(method.getDeclaringClass());
+        ClassGrc[] generated = metadata == null ? null : metadata.getMethodGrc(ActualClass.methodKey(method), genericsMap);
+        String sig = generated == null ? SignatureUtil.getSignature(method) : null;
+        MethodGrc methodGrc;
+        if (generated != null) {
+            // 编译期已生成
+            methodGrc = new MethodGrc(method, generated[0], Arrays.copyOfRange(generated, 1, generated.length));
+        } else if (sig != null) {
+            // 有泛型类
+            methodGrc = SignatureUtil.parseMethodBySignature(method, sig, genericsMap);
         } else {
             ClassGrc result = ReflectUtil.getClassGrc(method.getReturnType());
             Class<?>[] parameterTypes = method.getParameterTypes();
@@ -114,8 +142,10 @@ public class MethodUtil {
             for (int i = 0; i < parameterTypes.length; i++) {
                 argumentInfos[i] = ReflectUtil.getClassGrc(parameterTypes[i]);
             }
-            return new MethodGrc(method, result, argumentInfos);
+            methodGrc = new MethodGrc(method, result, argumentInfos);
         }
+        MetricsUtil.resolved(Resolution.METHOD_GRC, method.getDeclaringClass(), start);
+        return methodGrc;
     }
 
     /**
@@ -129,42 +159,16 @@ public class MethodUtil {
     }
 
     /**
-     * 从类中获取指定方法
+     * 从类中获取指定方法。按Java的方法调用规则匹配，支持子类、基础类型宽化与装箱拆箱，有多个适用方法时选择最具体的方法。
+     * 解析结果按方法名与参数类型缓存，详见MethodIndex。
      *
      * @param target     目标类
      * @param name       方法名
-     * @param paramTypes 方法参数类型数组
+     * @param paramTypes 方法参数类型数组，null元素可匹配任意非基础类型参数。最后一个参数是数组的方法可以省略该参数
      * @return 获取到的方法
      */
     public static Method getMethod(Class<?> target, String name, Class<?>... paramTypes) {
-        Method like = null;
-        METHOD_LOOP:
-        for (Method method : getAllMethods(target)) {
-            if (method.getName().equals(name)) {
-                int mpl = method.getParameterCount();
-                int pl = paramTypes.length;
-                // 匹配时，pl的值必定小于或等于mpl。小于的情况必定只小1且方法最后一个参数是数组
-                if (mpl > pl + 1 || mpl < pl) {
-                    continue;
-                }
-                Class<?>[] parameterTypes = method.getParameterTypes();
-                if (mpl == pl + 1 && !parameterTypes[mpl - 1].isArray()) {
-                    continue;
-                }
-                for (int i = 0; i < pl; i++) {
-                    if (!ReflectUtil.likeClass(parameterTypes[i], paramTypes[i])) {
-                        // I know what I do.
-                        continue METHOD_LOOP;
-                    }
-                }
-                if (pl == mpl) {
-                    return method;
-                } else {
-                    like = method;
-                }
-            }
-        }
-        return like;
+        return METHOD_INDEX.get(target).resolve(name, paramTypes);
     }
 
     /**
@@ -185,9 +189,15 @@ public class MethodUtil {
      * @return 属性set方法
      */
     public static Method getSetter(Class<?> target, Field field) {
-        String name = field.getName();
-        char first = name.charAt(0);
-        return getMethod(target, "set" + toUpper(first) + name.substring(1), field.getType());
+        PropertyDescriptor descriptor = PROPERTIES.get(target).get(field.getName());
+        if (descriptor == null) {
+            return null;
+        }
+        if (field.equals(descriptor.getField()) || field.getType() == descriptor.getType()) {
+            return descriptor.getSetter();
+        }
+        // 属性不属于目标类时按属性类型查找
+        return getMethod(target, "set" + PropertyTable.capitalize(field.getName()), field.getType());
     }
 
     /**
@@ -214,13 +224,6 @@ public class MethodUtil {
         return getSetter(target, field);
     }
 
-    private static char toUpper(char c) {
-        if (c >= 'a' && c <= 'z') {
-            return (char) (c - 'a' + 'A');
-        }
-        return c;
-    }
-
     /**
      * 获取类的属性get方法
      *
@@ -243,15 +246,15 @@ public class MethodUtil {
     }
 
     /**
-     * 获取类的属性get方法
+     * 获取类的属性get方法，布尔类型属性没有get方法时返回is方法
      *
      * @param target    目标类
      * @param fieldName 属性名
      * @return 属性get方法
      */
     public static <T> Method getGetter(Class<T> target, String fieldName) {
-        char first = fieldName.charAt(0);
-        return getMethod(target, "get" + toUpper(first) + fieldName.substring(1));
+        PropertyDescriptor descriptor = PROPERTIES.get(target).get(fieldName);
+        return descriptor == null ? null : descriptor.getGetter();
     }
 
     /**
@@ -266,6 +269,27 @@ public class MethodUtil {
         return getGetter(target, field);
     }
 
+    /**
+     * 获取类的属性描述
+     *
+     * @param target 目标类
+     * @param name   属性名
+     * @return 属性描述，不存在时返回null
+     */
+    public static PropertyDescriptor getProperty(Class<?> target, String name) {
+        return PROPERTIES.get(target).get(name);
+    }
+
+    /**
+     * 获取类的所有属性描述。属性由类及其父类的非静态属性与get、is、set方法组成，按类缓存。
+     *
+     * @param target 目标类
+     * @return 属性名与属性描述的不可修改对应表
+     */
+    public static Map<String, PropertyDescriptor> getProperties(Class<?> target) {
+        return PROPERTIES.get(target).all();
+    }
+
     /**
      * 获取Lambda表达式对应的属性
      *
@@ -274,34 +298,34 @@ public class MethodUtil {
      * @return 属性对象
      */
     public static <T, R> Method getMethodFromLambda(SFunction<T, R> function) {
-        SerializedLambda serializedLambda = ReflectUtil.getSerializedLambda(function);
-
-        // 获取方法参数类型
-        String expr = serializedLambda.getImplMethodSignature();
-        Matcher matcher = PARAMETER_TYPE_PATTERN.matcher(expr);
-        if (!matcher.find() || matcher.groupCount() != 1) {
-            throw new RuntimeException("Lambda parsing failed!");
+        LambdaCache cache = LambdaCache.of(function.getClass());
+        Method method = cache.method;
+        if (method == null) {
+            MetricsUtil.miss(CacheRegion.LAMBDA, function.getClass());
+            long start = MetricsUtil.start();
+            method = resolveMethodFromLambda(function);
+            cache.method = method;
+            MetricsUtil.resolved(Resolution.LAMBDA, method.getDeclaringClass(), start);
+        } else {
+            MetricsUtil.hit(CacheRegion.LAMBDA, function.getClass());
         }
-        expr = matcher.group(1);
+        return method;
+    }
+
+    private static Method resolveMethodFromLambda(SFunction<?, ?> function) {
+        SerializedLambda serializedLambda = ReflectUtil.getSerializedLambda(function);
+        Class<?> aClass = ReflectUtil.getImplClass(function, serializedLambda);
+        // 通过方法描述获取方法参数类型
         Class<?>[] claArray;
-        if (expr.isEmpty()) {
-            claArray = new Class[0];
-        } else {
-            claArray = Arrays.stream(expr.split(";"))
-                    .filter(s -> !s.isEmpty())
-                    .map(s -> s.replace("L", "").replace("/", "."))
-                    .map(s -> {
-                        try {
-                            return Class.forName(s);
-                        } catch (ClassNotFoundException e) {
-                            throw new RuntimeException("Can not found class - " + s, e);
-                        }
-                    }).toArray(Class[]::new);
+        try {
+            claArray = MethodType.fromMethodDescriptorString(serializedLambda.getImplMethodSignature(), aClass.getClassLoader())
+                    .parameterArray();
+        } catch (IllegalArgumentException | TypeNotPresentException e) {
+            throw new RuntimeException("Lambda parsing failed!", e);
         }
         try {
-            Class<?> aClass = Class.forName(serializedLambda.getImplClass().replace("/", "."));
             return aClass.getMethod(serializedLambda.getImplMethodName(), claArray);
-        } catch (ClassNotFoundException | NoSuchMethodException e) {
+        } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
     }
@@ -315,28 +339,48 @@ public class MethodUtil {
      * @return 方法执行返回值
      */
     public static Object invoke(Object target, String methodName, Object... params) throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
-        Class<?>[] paramTypes = new Class[params.length];
+        Class<?>[] paramTypes = new Class<?>[params.length];
         for (int i = 0; i < params.length; i++) {
-            paramTypes[i] = params[i].getClass();
+            Object param = params[i];
+            paramTypes[i] = param == null ? null : param.getClass();
         }
         Method method = getMethod(target.getClass(), methodName, paramTypes);
         if (method == null) {
-            throw new NoSuchMethodException();
+            throw new NoSuchMethodException(methodName);
         }
         return invoke(target, method, params);
     }
 
+    /**
+     * 执行对象的方法。自动识别方法最后一位参数是数组的方法。
+     *
+     * @param target 目标对象
+     * @param method 执行的方法
+     * @param params 执行方法的参数
+     * @return 方法执行返回值
+     */
     public static Object invoke(Object target, Method method, Object... params) throws InvocationTargetException, IllegalAccessException {
-        int pl = params.length;
-        if (method.getParameterCount() > pl) {
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            if (parameterTypes[pl].isArray()) {
-                Object[] tmp = Arrays.copyOf(params, pl + 1);
-                tmp[pl] = Array.newInstance(parameterTypes[pl].getComponentType(), 0);
-                params = tmp;
+        return invoker(method).invoke(target, params);
+    }
+
+    /**
+     * 获取方法的执行器。执行器按方法缓存，执行时不再经过Method.invoke。
+     *
+     * @param method 目标方法
+     * @return 方法执行器
+     */
+    public static MethodInvoker invoker(Method method) {
+        Map<Method, MethodInvoker> invokerMap = INVOKERS.get(method.getDeclaringClass());
+        MethodInvoker invoker = invokerMap.get(method);
+        if (invoker == null) {
+            invoker = new MethodInvoker(method);
+            MethodInvoker old = invokerMap.putIfAbsent(method, invoker);
+            if (old != null) {
+                invoker = old;
+            } else {
+                WarmupUtil.recordMethod(method);
             }
         }
-        return method.invoke(target, params);
+        return invoker;
     }
-
 }
@@ -0,0 +1,103 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.metrics.CacheRegion;
+import idea.verlif.reflection.metrics.ReflectionMetrics;
+import idea.verlif.reflection.metrics.Resolution;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 指标工具。默认使用META-INF/services中注册的第一个实现，未注册时不做任何处理。
+ *
+ * @author Verlif
+ */
+public class MetricsUtil {
+
+    /**
+     * 当前指标实现
+     */
+    private static volatile ReflectionMetrics metrics = loadMetrics();
+
+    /**
+     * 是否需要上报指标，未安装实现时解析路径上不再计时
+     */
+    private static volatile boolean enabled = metrics != ReflectionMetrics.NOOP;
+
+    private static ReflectionMetrics loadMetrics() {
+        try {
+            Iterator<ReflectionMetrics> iterator = ServiceLoader.load(ReflectionMetrics.class, MetricsUtil.class.getClassLoader()).iterator();
+            if (iterator.hasNext()) {
+                return iterator.next();
+            }
+        } catch (ServiceConfigurationError ignored) {
+        }
+        return ReflectionMetrics.NOOP;
+    }
+
+    /**
+     * 安装指标实现
+     *
+     * @param reflectionMetrics 指标实现，为null时恢复为不做任何处理
+     */
+    public static void setMetrics(ReflectionMetrics reflectionMetrics) {
+        ReflectionMetrics m = reflectionMetrics == null ? ReflectionMetrics.NOOP : reflectionMetrics;
+        metrics = m;
+        enabled = m != ReflectionMetrics.NOOP;
+    }
+
+    /**
+     * @return 当前指标实现
+     */
+    public static ReflectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return 是否安装了指标实现
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取计时起点，未安装指标实现时返回0
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * 上报解析完成。计时起点为0时说明开始解析时未安装指标实现，不再上报
+     */
+    static void resolved(Resolution resolution, Class<?> target, long start) {
+        if (start != 0 && enabled) {
+            metrics.resolved(resolution, target, System.nanoTime() - start);
+        }
+    }
+
+    static void hit(CacheRegion region, Class<?> target) {
+        if (enabled) {
+            metrics.cacheHit(region, target);
+        }
+    }
+
+    static void miss(CacheRegion region, Class<?> target) {
+        if (enabled) {
+            metrics.cacheMiss(region, target);
+        }
+    }
+
+    static void evicted(CacheRegion region, Class<?> target) {
+        if (enabled) {
+            metrics.cacheEvicted(region, target);
+        }
+    }
+
+    static void copyPlanBuilt(Class<?> sourceClass, Class<?> targetClass, int size, long start) {
+        if (start != 0 && enabled) {
+            metrics.copyPlanBuilt(sourceClass, targetClass, size, System.nanoTime() - start);
+        }
+    }
+}
@@ -1,40 +1,436 @@
 package idea.verlif.reflection.util;
 
+import idea.verlif.reflection.domain.BeanMap;
+import idea.verlif.reflection.domain.ChangeSet;
+import idea.verlif.reflection.domain.ClassMetadata;
+import idea.verlif.reflection.domain.ComparePlan;
+import idea.verlif.reflection.domain.CopyPlan;
+import idea.verlif.reflection.domain.FieldAccessor;
+import idea.verlif.reflection.domain.TypeConverter;
+import idea.verlif.reflection.metrics.CacheRegion;
+
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * 对象工具
  */
 public class ObjectUtil {
 
+    /**
+     * 拷贝计划缓存，以源类分组，再以目标类为键。只缓存目标类由源类的类加载器或其父加载器加载的计划
+     */
+    private static final ClassValue<Map<Class<?>, CachedPlan>> COPY_PLANS = new ClassValue<Map<Class<?>, CachedPlan>>() {
+        @Override
+        protected Map<Class<?>, CachedPlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * 拷贝计划缓存，以目标类分组，再以源类为键。缓存源类由目标类的类加载器或其父加载器加载、而反过来不成立的计划，
+     * 例如从子加载器的类拷贝到父加载器的类
+     */
+    private static final ClassValue<Map<Class<?>, CachedPlan>> REVERSE_COPY_PLANS = new ClassValue<Map<Class<?>, CachedPlan>>() {
+        @Override
+        protected Map<Class<?>, CachedPlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * 映射表视图的键表缓存
+     */
+    private static final ClassValue<BeanMap.KeyTable> KEY_TABLES = new ClassValue<BeanMap.KeyTable>() {
+        @Override
+        protected BeanMap.KeyTable computeValue(Class<?> type) {
+            Map<String, FieldAccessor> accessors = new LinkedHashMap<>();
+            // 子类属性在前，隐藏父类的同名属性；跳过编译器生成的属性，例如内部类的this$0
+            for (Field field : FieldUtil.getAllFields(type)) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic() && !accessors.containsKey(field.getName())) {
+                    accessors.put(field.getName(), FieldUtil.accessor(field));
+                }
+            }
+            return new BeanMap.KeyTable(accessors.keySet().toArray(new String[0]),
+                    accessors.values().toArray(new FieldAccessor[0]));
+        }
+    };
+
+    /**
+     * 比较计划缓存
+     */
+    private static final ClassValue<ComparePlan> COMPARE_PLANS = new ClassValue<ComparePlan>() {
+        @Override
+        protected ComparePlan computeValue(Class<?> type) {
+            List<FieldAccessor> accessors = new ArrayList<>();
+            // 被隐藏的父类属性同样属于对象状态，一并比较
+            for (Field field : FieldUtil.getAllFields(type)) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    accessors.add(FieldUtil.accessor(field));
+                }
+            }
+            return new ComparePlan(type, accessors.toArray(new FieldAccessor[0]));
+        }
+    };
+
+    /**
+     * 批量拷贝时切换为并行拷贝的默认数量阈值
+     */
+    public static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * 并行拷贝时每个任务至少处理的对象数量
+     */
+    private static final int MIN_CHUNK = 1024;
+
     /**
      * 浅拷贝对象属性，从source的属性值拷贝到target对象中
      * @param source 源对象
      * @param target 目标对象
      */
     public static void copy(Object source, Object target) {
-        Class<?> sourceClass = source.getClass();
-        Class<?> targetClass = target.getClass();
-        List<Field> allFields = FieldUtil.getAllFields(sourceClass);
-        if (sourceClass == targetClass || sourceClass.isAssignableFrom(targetClass)) {
-            for (Field field : allFields) {
-                try {
-                    FieldUtil.setFieldValue(target, field, FieldUtil.getFieldValue(source, field));
-                } catch (NoSuchFieldException ignored) {
-                }
+        if (source.getClass() == target.getClass()) {
+            // 编译期生成了拷贝代码时直接拷贝
+            ClassMetadata metadata = MetadataTables.of(source.getClass());
+            if (metadata != null && metadata.copy(source, target)) {
+                return;
             }
+        }
+        getCopyPlan(source.getClass(), target.getClass()).copy(source, target);
+    }
+
+    /**
+     * 获取对象的映射表视图。视图的键为对象的非静态属性名，读写直接作用于对象属性；键表按类共享，创建视图不会复制属性值。
+     *
+     * @param bean 目标对象
+     * @return 映射表视图
+     */
+    public static Map<String, Object> asMap(Object bean) {
+        return new BeanMap(bean, KEY_TABLES.get(bean.getClass()));
+    }
+
+    /**
+     * 按非静态属性比较两个对象，基础类型属性不装箱比较，数组属性按内容比较
+     *
+     * @param a 对象a
+     * @param b 对象b
+     * @return 两个对象是同一个类且所有属性值相等时返回true
+     */
+    public static boolean equalsByFields(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.getClass() != b.getClass()) {
+            return false;
+        }
+        return COMPARE_PLANS.get(a.getClass()).equals(a, b);
+    }
+
+    /**
+     * 按非静态属性计算哈希值，与{@link #equalsByFields(Object, Object)}一致
+     *
+     * @param o 目标对象
+     * @return 哈希值，对象为null时返回0
+     */
+    public static int hashByFields(Object o) {
+        if (o == null) {
+            return 0;
+        }
+        return COMPARE_PLANS.get(o.getClass()).hash(o);
+    }
+
+    /**
+     * 比较同一个类的两个对象，找出值不同的非静态属性
+     *
+     * @param oldObj 旧对象
+     * @param newObj 新对象
+     * @return 变化集合，只保存变化属性的新旧值
+     */
+    public static ChangeSet diff(Object oldObj, Object newObj) {
+        if (oldObj.getClass() != newObj.getClass()) {
+            throw new IllegalArgumentException("Can not diff different classes - "
+                    + oldObj.getClass() + " : " + newObj.getClass());
+        }
+        return COMPARE_PLANS.get(oldObj.getClass()).diff(oldObj, newObj);
+    }
+
+    /**
+     * 获取类的比较计划。计划按类缓存，包含类及其父类的所有非静态属性。
+     *
+     * @param target 目标类
+     * @return 比较计划
+     */
+    public static ComparePlan getComparePlan(Class<?> target) {
+        return COMPARE_PLANS.get(target);
+    }
+
+    /**
+     * 深拷贝对象。支持循环引用与任意深度的对象图，同一对象在拷贝结果中只会出现一次。<br/>
+     * 字符串、包装类、枚举、java.time等不可变对象直接共享；数组按元素拷贝；公开且有公开无参构造器的集合与映射表通过其方法重建；
+     * Arrays.asList、不可修改与同步容器等非公开JDK容器按元素重建后重新包装；StringBuilder、StringBuffer与Atomic类按值拷贝；
+     * 其他JDK对象通过公开的clone方法拷贝，没有实例属性时直接共享；普通对象需要无参构造器，按属性拷贝。
+     *
+     * @param source 源对象
+     * @param <T>    对象类
+     * @return 拷贝对象
+     * @throws IllegalArgumentException 对象图中存在无法拷贝的对象
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T deepCopy(T source) {
+        return (T) DeepCopier.copy(source);
+    }
+
+    /**
+     * 批量浅拷贝对象属性，数量达到{@link #PARALLEL_THRESHOLD}时并行拷贝
+     *
+     * @param sources 源对象集合，null元素对应的目标对象也为null
+     * @param factory 目标对象构造方法，并行拷贝时会被多个线程同时调用
+     * @param <T>     目标对象类
+     * @return 与源对象顺序一致的目标对象列表
+     */
+    public static <T> List<T> copyAll(Collection<?> sources, Supplier<? extends T> factory) {
+        return copyAll(sources, factory, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 批量浅拷贝对象属性
+     *
+     * @param sources           源对象集合，null元素对应的目标对象也为null
+     * @param factory           目标对象构造方法，并行拷贝时会被多个线程同时调用
+     * @param parallelThreshold 切换为并行拷贝的数量阈值
+     * @param <T>               目标对象类
+     * @return 与源对象顺序一致的目标对象列表
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> copyAll(Collection<?> sources, Supplier<? extends T> factory, int parallelThreshold) {
+        Object[] sourceArray = sources.toArray();
+        Object[] targetArray = new Object[sourceArray.length];
+        copyAll(sourceArray, targetArray, factory, parallelThreshold);
+        return new ArrayList<>((List<T>) Arrays.asList(targetArray));
+    }
+
+    /**
+     * 批量浅拷贝对象属性，数量达到{@link #PARALLEL_THRESHOLD}时并行拷贝
+     *
+     * @param sources   源对象数组，null元素对应的目标对象也为null
+     * @param factory   目标对象构造方法，并行拷贝时会被多个线程同时调用
+     * @param generator 目标数组构造方法
+     * @param <T>       目标对象类
+     * @return 与源对象顺序一致的目标对象数组
+     */
+    public static <T> T[] copyAll(Object[] sources, Supplier<? extends T> factory, IntFunction<T[]> generator) {
+        T[] targets = generator.apply(sources.length);
+        copyAll(sources, targets, factory, PARALLEL_THRESHOLD);
+        return targets;
+    }
+
+    /**
+     * 批量浅拷贝对象属性到已有的目标对象中，数量达到{@link #PARALLEL_THRESHOLD}时并行拷贝
+     *
+     * @param sources 源对象数组
+     * @param targets 目标对象数组，与源对象一一对应。任意一方为null时跳过
+     */
+    public static void copyAll(Object[] sources, Object[] targets) {
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException("Length mismatch - " + sources.length + " : " + targets.length);
+        }
+        copyAll(sources, targets, null, PARALLEL_THRESHOLD);
+    }
+
+    private static void copyAll(Object[] sources, Object[] targets, Supplier<?> factory, int parallelThreshold) {
+        int length = sources.length;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (length < parallelThreshold || parallelism <= 1) {
+            copyRange(sources, targets, factory, 0, length);
         } else {
-            for (Field field : allFields) {
-                Field targetField = FieldUtil.getField(targetClass, field.getName());
-                if (targetField != null) {
-                    try {
-                        FieldUtil.setFieldValue(target, targetField, FieldUtil.getFieldValue(source, field));
-                    } catch (NoSuchFieldException | IllegalArgumentException ignored) {
-                    }
+            // 每个线程分配多个任务，便于工作窃取平衡负载
+            int chunk = Math.max(MIN_CHUNK, length / (parallelism * 4));
+            ForkJoinPool.commonPool().invoke(new CopyTask(sources, targets, factory, 0, length, chunk));
+        }
+    }
+
+    /**
+     * 顺序拷贝一段对象。相邻对象类型相同时复用拷贝计划，不再查找缓存
+     */
+    private static void copyRange(Object[] sources, Object[] targets, Supplier<?> factory, int from, int to) {
+        CopyPlan plan = null;
+        for (int i = from; i < to; i++) {
+            Object source = sources[i];
+            if (source == null) {
+                continue;
+            }
+            Object target = factory == null ? targets[i] : (targets[i] = factory.get());
+            if (target == null) {
+                continue;
+            }
+            if (plan == null || plan.getSourceClass() != source.getClass() || plan.getTargetClass() != target.getClass()) {
+                plan = getCopyPlan(source.getClass(), target.getClass());
+            }
+            plan.copy(source, target);
+        }
+    }
+
+    /**
+     * 获取两个类之间的拷贝计划。计划按类对缓存，两个类的类加载器互不可见时不缓存；计划只包含名称相同且类型兼容的非静态属性。
+     *
+     * @param sourceClass 源类
+     * @param targetClass 目标类
+     * @return 拷贝计划
+     */
+    public static CopyPlan getCopyPlan(Class<?> sourceClass, Class<?> targetClass) {
+        // 计划缓存在类加载器更靠近子级的一方，不会使另一方的类加载器无法回收
+        Map<Class<?>, CachedPlan> planMap;
+        Class<?> key;
+        if (ReflectUtil.isCacheable(sourceClass, targetClass)) {
+            planMap = COPY_PLANS.get(sourceClass);
+            key = targetClass;
+        } else if (ReflectUtil.isCacheable(targetClass, sourceClass)) {
+            planMap = REVERSE_COPY_PLANS.get(targetClass);
+            key = sourceClass;
+        } else {
+            // 类加载器互不可见时不缓存
+            planMap = null;
+            key = null;
+        }
+        CachedPlan cached = planMap == null ? null : planMap.get(key);
+        if (cached != null && (cached.version == CachedPlan.ANY_VERSION || cached.version == ConvertUtil.version())) {
+            MetricsUtil.hit(CacheRegion.COPY_PLAN, sourceClass);
+            return cached.plan;
+        }
+        if (cached != null) {
+            // 转换器注册表已变化，计划可能使用了旧的转换器
+            MetricsUtil.evicted(CacheRegion.COPY_PLAN, sourceClass);
+        }
+        MetricsUtil.miss(CacheRegion.COPY_PLAN, sourceClass);
+        long start = MetricsUtil.start();
+        CachedPlan built = buildCopyPlan(sourceClass, targetClass);
+        MetricsUtil.copyPlanBuilt(sourceClass, targetClass, built.plan.size(), start);
+        // 构建期间注册表发生变化时，计划记录的是构建前的版本，下次使用时会再次重建
+        if (planMap == null) {
+            return built.plan;
+        }
+        if (cached == null) {
+            if (planMap.putIfAbsent(key, built) == null) {
+                WarmupUtil.recordCopy(sourceClass, targetClass);
+            }
+        } else {
+            planMap.replace(key, cached, built);
+        }
+        return built.plan;
+    }
+
+    private static CachedPlan buildCopyPlan(Class<?> sourceClass, Class<?> targetClass) {
+        // 先读取版本，构建期间注册表变化时计划会被视为过期
+        int version = ConvertUtil.version();
+        boolean lookedUp = false;
+        boolean sameLayout = sourceClass == targetClass || sourceClass.isAssignableFrom(targetClass);
+        List<FieldAccessor> sources = new ArrayList<>();
+        List<FieldAccessor> targets = new ArrayList<>();
+        List<TypeConverter<Object, Object>> converters = new ArrayList<>();
+        boolean converting = false;
+        Set<String> names = new HashSet<>();
+        for (Field field : FieldUtil.getAllFields(sourceClass)) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            // 不同类之间按名称匹配，父类中被隐藏的同名属性不再拷贝
+            if (!sameLayout && !names.add(field.getName())) {
+                continue;
+            }
+            Field targetField = sameLayout ? field : FieldUtil.getField(targetClass, field.getName());
+            if (targetField == null || Modifier.isStatic(targetField.getModifiers())) {
+                continue;
+            }
+            // 类型不可直接赋值时在构建计划时解析转换器，没有转换器的属性不拷贝
+            TypeConverter<Object, Object> converter = null;
+            if (!ReflectUtil.isAssignable(targetField.getType(), field.getType())) {
+                lookedUp = true;
+                converter = ConvertUtil.getConverter(field.getType(), targetField.getType());
+                if (converter == null) {
+                    continue;
                 }
             }
+            FieldAccessor targetAccessor = FieldUtil.accessor(targetField);
+            if (targetAccessor.isWritable()) {
+                sources.add(FieldUtil.accessor(field));
+                targets.add(targetAccessor);
+                converters.add(converter);
+                converting |= converter != null;
+            }
+        }
+        @SuppressWarnings("unchecked")
+        TypeConverter<Object, Object>[] converterArray = converting
+                ? converters.toArray((TypeConverter<Object, Object>[]) new TypeConverter<?, ?>[converters.size()]) : null;
+        CopyPlan plan = new CopyPlan(sourceClass, targetClass,
+                sources.toArray(new FieldAccessor[0]), targets.toArray(new FieldAccessor[0]), converterArray);
+        return new CachedPlan(plan, lookedUp ? version : CachedPlan.ANY_VERSION);
+    }
+
+    /**
+     * 缓存的拷贝计划，记录构建时的转换器注册表版本
+     */
+    private static final class CachedPlan {
+
+        /**
+         * 构建时没有查找转换器，计划不受注册表变化影响
+         */
+        private static final int ANY_VERSION = -1;
+
+        private final CopyPlan plan;
+
+        private final int version;
+
+        CachedPlan(CopyPlan plan, int version) {
+            this.plan = plan;
+            this.version = version;
         }
     }
 
+    /**
+     * 并行拷贝任务，按区间二分直到区间不超过分块大小
+     */
+    private static final class CopyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] sources;
+        private final Object[] targets;
+        private final Supplier<?> factory;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        CopyTask(Object[] sources, Object[] targets, Supplier<?> factory, int from, int to, int chunk) {
+            this.sources = sources;
+            this.targets = targets;
+            this.factory = factory;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                copyRange(sources, targets, factory, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CopyTask(sources, targets, factory, from, mid, chunk),
+                        new CopyTask(sources, targets, factory, mid, to, chunk));
+            }
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.domain.PropertyDescriptor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * 属性描述表。由类及其父类的非静态属性与get、is、set方法一次性构建，以属性名首字母大写后的形式为键查找。
+ */
+final class PropertyTable {
+
+    /**
+     * 首字母大写的属性名与属性描述的对应表
+     */
+    private final Map<String, PropertyDescriptor> byKey;
+
+    /**
+     * 属性名与属性描述的不可修改对应表，子类属性在前
+     */
+    private final Map<String, PropertyDescriptor> byName;
+
+    private PropertyTable(Map<String, PropertyDescriptor> byKey, Map<String, PropertyDescriptor> byName) {
+        this.byKey = byKey;
+        this.byName = Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * @param name 属性名
+     * @return 属性描述，不存在时返回null
+     */
+    PropertyDescriptor get(String name) {
+        return byKey.get(capitalize(name));
+    }
+
+    /**
+     * @return 属性名与属性描述的不可修改对应表
+     */
+    Map<String, PropertyDescriptor> all() {
+        return byName;
+    }
+
+    static PropertyTable of(Class<?> type) {
+        // 子类成员在前，同名时保留最先出现的
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Field field : FieldUtil.getAllFields(type)) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.putIfAbsent(capitalize(field.getName()), field);
+            }
+        }
+        Map<String, Method> getters = new LinkedHashMap<>();
+        Map<String, Method> isGetters = new LinkedHashMap<>();
+        Map<String, List<Method>> setters = new LinkedHashMap<>();
+        for (Method method : MethodUtil.getAllMethods(type)) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            String name = method.getName();
+            int count = method.getParameterCount();
+            if (count == 0 && name.length() > 3 && name.startsWith("get") && method.getReturnType() != void.class) {
+                putGetter(getters, name.substring(3), method);
+            } else if (count == 0 && name.length() > 2 && name.startsWith("is") && method.getReturnType() == boolean.class) {
+                putGetter(isGetters, name.substring(2), method);
+            } else if (count == 1 && name.length() > 3 && name.startsWith("set")) {
+                setters.computeIfAbsent(name.substring(3), k -> new ArrayList<>()).add(method);
+            }
+        }
+
+        Set<String> keys = new LinkedHashSet<>(fields.keySet());
+        keys.addAll(getters.keySet());
+        keys.addAll(isGetters.keySet());
+        keys.addAll(setters.keySet());
+        Map<String, PropertyDescriptor> byKey = new HashMap<>(keys.size() * 2);
+        Map<String, PropertyDescriptor> byName = new LinkedHashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            Field field = fields.get(key);
+            // 同时存在get与is方法时保留get方法
+            Method getter = getters.get(key);
+            if (getter == null) {
+                getter = isGetters.get(key);
+            }
+            Class<?> propertyType = field != null ? field.getType() : getter != null ? getter.getReturnType() : null;
+            Method setter = chooseSetter(setters.get(key), propertyType);
+            if (propertyType == null) {
+                propertyType = setter.getParameterTypes()[0];
+            }
+            String name = field != null ? field.getName() : decapitalize(key);
+            PropertyDescriptor descriptor = new PropertyDescriptor(name, propertyType, field, getter, setter);
+            byKey.put(key, descriptor);
+            byName.putIfAbsent(name, descriptor);
+        }
+        return new PropertyTable(byKey, byName);
+    }
+
+    /**
+     * 子类覆盖父类get方法并缩小返回值类型时，子类中会同时存在桥接方法，保留非桥接方法
+     */
+    private static void putGetter(Map<String, Method> getters, String key, Method method) {
+        Method old = getters.get(key);
+        if (old == null || old.isBridge() && !method.isBridge()) {
+            getters.put(key, method);
+        }
+    }
+
+    /**
+     * 从候选set方法中选择参数类型与属性类型最匹配的方法，依次为相同类型、包装类型与可赋值类型
+     */
+    private static Method chooseSetter(List<Method> candidates, Class<?> propertyType) {
+        if (candidates == null) {
+            return null;
+        }
+        if (propertyType == null) {
+            for (Method method : candidates) {
+                if (!method.isBridge()) {
+                    return method;
+                }
+            }
+            return candidates.get(0);
+        }
+        Method like = null;
+        Method assignable = null;
+        for (Method method : candidates) {
+            Class<?> parameterType = method.getParameterTypes()[0];
+            if (parameterType == propertyType && !method.isBridge()) {
+                return method;
+            }
+            if (like == null && ReflectUtil.likeClass(parameterType, propertyType)) {
+                like = method;
+            } else if (assignable == null && ReflectUtil.isAssignable(parameterType, propertyType)) {
+                assignable = method;
+            }
+        }
+        return like != null ? like : assignable;
+    }
+
+    static String capitalize(String name) {
+        char first = name.charAt(0);
+        if (first >= 'a' && first <= 'z') {
+            return (char) (first - 'a' + 'A') + name.substring(1);
+        }
+        return name;
+    }
+
+    /**
+     * 与JavaBeans规范一致，前两个字符都是大写时保持不变
+     */
+    private static String decapitalize(String key) {
+        if (key.length() > 1 && Character.isUpperCase(key.charAt(0)) && Character.isUpperCase(key.charAt(1))) {
+            return key;
+        }
+        return Character.toLowerCase(key.charAt(0)) + key.substring(1);
+    }
+}
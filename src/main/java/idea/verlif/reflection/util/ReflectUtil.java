@@ -1,14 +1,18 @@
 package idea.verlif.reflection.util;
 
 import idea.verlif.reflection.domain.*;
-import sun.reflect.generics.reflectiveObjects.ParameterizedTypeImpl;
-import sun.reflect.generics.repository.ClassRepository;
+import idea.verlif.reflection.metrics.CacheRegion;
+import idea.verlif.reflection.metrics.Resolution;
 
 import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.*;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 反射方法
@@ -17,31 +21,54 @@ import java.util.Map;
  */
 public class ReflectUtil {
 
-    private static final ClassGrc OBJECT_CLASS_GRC = new ClassGrc();
+    private static final ClassGrc OBJECT_CLASS_GRC = ClassGrc.of(Object.class);
+
+    private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+    /**
+     * 类的泛型表缓存
+     */
+    private static final ClassValue<GenericsTable> GENERICS_TABLES = new ClassValue<GenericsTable>() {
+        @Override
+        protected GenericsTable computeValue(Class<?> type) {
+            return new GenericsTable(type);
+        }
+    };
+
+    /**
+     * 真实类信息缓存
+     */
+    private static final ClassValue<ActualClassHolder> ACTUAL_CLASSES = new ClassValue<ActualClassHolder>() {
+        @Override
+        protected ActualClassHolder computeValue(Class<?> type) {
+            return new ActualClassHolder();
+        }
+    };
+
+    /**
+     * 每个类最多缓存的实例工厂数量
+     */
+    static final int MAX_FACTORIES = 256;
+
+    /**
+     * 实例工厂缓存，以目标类分组，再以参数类型为键。每个类最多缓存{@link #MAX_FACTORIES}个结果，
+     * 参数类型不是由目标类的类加载器或其父加载器加载时不缓存，避免目标类的缓存使参数类型的类加载器无法回收。
+     */
+    private static final ClassValue<Map<ConstructorKey, Optional<InstanceFactory<?>>>> FACTORIES = new ClassValue<Map<ConstructorKey, Optional<InstanceFactory<?>>>>() {
+        @Override
+        protected Map<ConstructorKey, Optional<InstanceFactory<?>>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     /**
      * 获取类的泛型标记表
      *
      * @param cl 目标类
-     * @return 类包含的泛型表
+     * @return 类包含的泛型表，表按类缓存且不可修改
      */
     public static Map<String, ClassGrc> getGenericsMap(Class<?> cl) throws NoSuchFieldException, IllegalAccessException {
-        Map<String, ClassGrc> genericsMap = new HashMap<>();
-        // 从继承的类中寻求泛型
-        Type type = cl.getGenericSuperclass();
-        if (type instanceof ParameterizedType) {
-            ParameterizedType pType = (ParameterizedType) type;
-            genericsMap.putAll(getGenericsMap(pType));
-        }
-
-        // 从继承的接口中寻求泛型
-        Type[] interfaces = cl.getGenericInterfaces();
-        for (Type iType : interfaces) {
-            if (iType instanceof ParameterizedType) {
-                genericsMap.putAll(getGenericsMap((ParameterizedType) iType));
-            }
-        }
-        return genericsMap;
+        return GENERICS_TABLES.get(cl).genericsMap;
     }
 
     /**
@@ -51,14 +78,13 @@ public class ReflectUtil {
      * @return 参数类型包含的泛型表
      */
     public static Map<String, ClassGrc> getGenericsMap(ClassGrc classGrc) throws NoSuchFieldException, IllegalAccessException {
-        if (classGrc.getGenericsInfos().length == 0) {
-            return getGenericsMap(classGrc.getClass());
+        if (classGrc.getGenericsCount() == 0) {
+            return getGenericsMap(classGrc.getTarget());
         }
         Map<String, ClassGrc> genericsMap = new HashMap<>();
         TypeVariable<? extends Class<?>>[] typeParameters = classGrc.getTarget().getTypeParameters();
-        ClassGrc[] genericsInfos = classGrc.getGenericsInfos();
-        for (int i = 0, size = Math.min(typeParameters.length, genericsInfos.length); i < size; i++) {
-            genericsMap.put(typeParameters[i].getName(), genericsInfos[i]);
+        for (int i = 0, size = Math.min(typeParameters.length, classGrc.getGenericsCount()); i < size; i++) {
+            genericsMap.put(typeParameters[i].getName(), classGrc.getGenericsInfo(i));
         }
         return genericsMap;
     }
@@ -67,38 +93,27 @@ public class ReflectUtil {
      * 获取参数类型的泛型标记表
      *
      * @param pType 参数类型
-     * @return 参数类型包含的泛型表
+     * @return 参数类型包含的泛型表，不可修改
      */
     public static Map<String, ClassGrc> getGenericsMap(ParameterizedType pType) throws NoSuchFieldException, IllegalAccessException {
+        return buildGenericsMap(pType);
+    }
+
+    private static Map<String, ClassGrc> buildGenericsMap(ParameterizedType pType) {
         Map<String, ClassGrc> genericsMap = new HashMap<>();
         Type rawType = pType.getRawType();
         Type[] arguments = pType.getActualTypeArguments();
-        if (arguments.length > 0) {
-            Field genericInfoField = Class.class.getDeclaredField("genericInfo");
-            boolean acc = genericInfoField.isAccessible();
-            if (!acc) {
-                genericInfoField.setAccessible(true);
-            }
-            ClassRepository genericInfo = (ClassRepository) genericInfoField.get(rawType);
-            if (!acc) {
-                genericInfoField.setAccessible(false);
-            }
-            TypeVariable<?>[] parameters = genericInfo.getTypeParameters();
-            for (int i = 0; i < parameters.length; i++) {
+        if (rawType instanceof Class) {
+            TypeVariable<?>[] parameters = ((Class<?>) rawType).getTypeParameters();
+            for (int i = 0, size = Math.min(parameters.length, arguments.length); i < size; i++) {
                 genericsMap.put(parameters[i].getName(), getClassGrc(arguments[i]));
             }
-        }
-        // 避免替换已获取的类型
-        if (rawType instanceof Class) {
-            Map<String, ClassGrc> classGrcMap = getGenericsMap((Class<?>) rawType);
-            for (Map.Entry<String, ClassGrc> grcEntry : classGrcMap.entrySet()) {
-                if (!genericsMap.containsKey(grcEntry.getKey())) {
-                    genericsMap.put(grcEntry.getKey(), grcEntry.getValue());
-                }
+            // 避免替换已获取的类型
+            for (Map.Entry<String, ClassGrc> grcEntry : GENERICS_TABLES.get((Class<?>) rawType).genericsMap.entrySet()) {
+                genericsMap.putIfAbsent(grcEntry.getKey(), grcEntry.getValue());
             }
         }
-
-        return genericsMap;
+        return Collections.unmodifiableMap(genericsMap);
     }
 
     /**
@@ -108,16 +123,16 @@ public class ReflectUtil {
      */
     public static ClassGrc getClassGrc(Type type) {
         if (type instanceof ParameterizedType) {
-            ParameterizedTypeImpl pType = (ParameterizedTypeImpl) type;
-            Class<?> rawType = pType.getRawType();
+            ParameterizedType pType = (ParameterizedType) type;
+            Class<?> rawType = (Class<?>) pType.getRawType();
             Type[] arguments = pType.getActualTypeArguments();
             ClassGrc[] argumentInfos = new ClassGrc[arguments.length];
             for (int i = 0; i < argumentInfos.length; i++) {
                 argumentInfos[i] = getClassGrc(arguments[i]);
             }
-            return new ClassGrc(rawType, argumentInfos);
+            return ClassGrc.of(rawType, argumentInfos);
         } else if (type instanceof Class) {
-            return new ClassGrc((Class<?>) type);
+            return ClassGrc.of((Class<?>) type);
         } else {
             return OBJECT_CLASS_GRC;
         }
@@ -130,18 +145,75 @@ public class ReflectUtil {
      * @return 真实类信息
      */
     public static ActualClass getActualClass(Class<?> target) throws NoSuchFieldException, IllegalAccessException, ClassNotFoundException {
-        Map<String, ClassGrc> genericsMap = getGenericsMap(target);
-        List<Field> allFields = FieldUtil.getAllFields(target);
-        Map<String, FieldGrc> fieldGrcMap = new HashMap<>(allFields.size());
-        for (Field field : allFields) {
-            fieldGrcMap.put(field.getName(), FieldUtil.getFieldGrc(field, genericsMap));
+        ActualClassHolder holder = ACTUAL_CLASSES.get(target);
+        ActualClass actualClass = holder.actualClass;
+        if (actualClass == null) {
+            MetricsUtil.miss(CacheRegion.ACTUAL_CLASS, target);
+            long start = MetricsUtil.start();
+            actualClass = buildActualClass(target);
+            holder.actualClass = actualClass;
+            MetricsUtil.resolved(Resolution.ACTUAL_CLASS, target, start);
+            WarmupUtil.recordClass(target);
+        } else {
+            MetricsUtil.hit(CacheRegion.ACTUAL_CLASS, target);
         }
-        List<Method> allMethods = MethodUtil.getAllMethods(target);
-        Map<String, MethodGrc> methodGrcMap = new HashMap<>(allMethods.size());
-        for (Method method : allMethods) {
-            methodGrcMap.put(method.getName(), MethodUtil.getMethodGrc(method, target));
+        return actualClass;
+    }
+
+    /**
+     * 使用已解析的泛型信息预先构建真实类信息，已构建的类不受影响
+     *
+     * @param target         目标类
+     * @param fieldSnapshot  属性名与属性泛型信息的对应表
+     * @param methodSnapshot 方法键与方法泛型信息的对应表，数组首位为返回值，其后为参数
+     * @return 是否完成构建
+     */
+    static boolean preloadActualClass(Class<?> target, Map<String, ClassGrc> fieldSnapshot, Map<String, ClassGrc[]> methodSnapshot) throws NoSuchFieldException, IllegalAccessException {
+        ActualClassHolder holder = ACTUAL_CLASSES.get(target);
+        if (holder.actualClass != null) {
+            return false;
         }
+        holder.actualClass = buildActualClass(target, fieldSnapshot, methodSnapshot);
+        return true;
+    }
+
+    private static ActualClass buildActualClass(Class<?> target) throws NoSuchFieldException, IllegalAccessException {
+        return buildActualClass(target, Collections.emptyMap(), Collections.emptyMap());
+    }
 
+    /**
+     * 构建真实类信息。属性与方法的泛型信息都在首次获取时解析，方法按名称与参数描述索引以保留所有重载。
+     * 已解析的泛型信息优先于实时解析。
+     */
+    private static ActualClass buildActualClass(Class<?> target, Map<String, ClassGrc> fieldSnapshot, Map<String, ClassGrc[]> methodSnapshot) throws NoSuchFieldException, IllegalAccessException {
+        Map<String, ClassGrc> genericsMap = getGenericsMap(target);
+        Map<String, FieldGrc> fieldGrcMap = new LazyGrcMap<Field, FieldGrc>(() -> {
+            Map<String, Field> fields = new LinkedHashMap<>();
+            // 子类属性在前，隐藏父类的同名属性
+            for (Field field : FieldUtil.getAllFields(target)) {
+                fields.putIfAbsent(field.getName(), field);
+            }
+            return Collections.unmodifiableMap(fields);
+        }, field -> {
+            ClassGrc classGrc = fieldSnapshot.get(field.getName());
+            return classGrc == null ? FieldUtil.getFieldGrc(field, genericsMap) : new FieldGrc(field, classGrc);
+        });
+        Map<String, MethodGrc> methodGrcMap = new LazyGrcMap<Method, MethodGrc>(() -> {
+            Map<String, Method> methods = new LinkedHashMap<>();
+            // 子类方法在前，覆盖父类的同签名方法；同签名时优先非桥接方法
+            for (Method method : MethodUtil.getAllMethods(target)) {
+                String key = ActualClass.methodKey(method);
+                Method old = methods.get(key);
+                if (old == null || (old.isBridge() && !method.isBridge() && old.getDeclaringClass() == method.getDeclaringClass())) {
+                    methods.put(key, method);
+                }
+            }
+            return Collections.unmodifiableMap(methods);
+        }, method -> {
+            ClassGrc[] classGrcs = methodSnapshot.get(ActualClass.methodKey(method));
+            return classGrcs == null ? MethodUtil.getMethodGrc(method, genericsMap)
+                    : new MethodGrc(method, classGrcs[0], Arrays.copyOfRange(classGrcs, 1, classGrcs.length));
+        });
         return new ActualClass(getClassGrc(target), fieldGrcMap, methodGrcMap);
     }
 
@@ -152,61 +224,124 @@ public class ReflectUtil {
      * @return SerializedLambda对象
      */
     public static <T> SerializedLambda getSerializedLambda(SFunction<T, ?> function) {
-        // 获取序列化方法
-        Method writeReplaceMethod;
-        try {
-            writeReplaceMethod = function.getClass().getDeclaredMethod("writeReplace");
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
-
-        // 从序列化方法中获取Lambda表达式信息
-        boolean isAccessible = writeReplaceMethod.isAccessible();
-        // 如果isAccessible为false则进行设定
-        if (!isAccessible) {
-            writeReplaceMethod.setAccessible(true);
-        }
+        // 序列化方法按Lambda类缓存，且已开启访问权限
+        Method writeReplaceMethod = LambdaCache.of(function.getClass()).writeReplace;
         SerializedLambda serializedLambda;
         try {
             serializedLambda = (SerializedLambda) writeReplaceMethod.invoke(function);
         } catch (IllegalAccessException | InvocationTargetException e) {
             throw new RuntimeException(e);
         }
-        // 还原access设定
-        if (!isAccessible) {
-            writeReplaceMethod.setAccessible(false);
-        }
         return serializedLambda;
     }
 
     /**
-     * 通过构造器产生实例对象
+     * 加载Lambda表达式的实现类
+     *
+     * @param function         Lambda表达式
+     * @param serializedLambda Lambda表达式的SerializedLambda对象
+     * @return 实现类
+     */
+    static Class<?> getImplClass(Object function, SerializedLambda serializedLambda) {
+        try {
+            return Class.forName(serializedLambda.getImplClass().replace('/', '.'), false, function.getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 通过公开构造器产生实例对象
      *
      * @param cla    目标类
-     * @param params 构造器参数
+     * @param params 构造器参数，null参数可匹配任意非基础类型参数
      * @param <T>    实例类
-     * @return 实例对象
+     * @return 实例对象，没有匹配的公开构造器时返回null
      */
     public static <T> T newInstance(Class<T> cla, Object... params) throws InstantiationException, IllegalAccessException, InvocationTargetException {
-        // 当没有参数是直接调用无参构造器方法
-        if (params.length == 0) {
-            return cla.newInstance();
+        Class<?>[] types = new Class<?>[params.length];
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            types[i] = param == null ? null : param.getClass();
+        }
+        InstanceFactory<T> factory = factory(cla, types);
+        if (factory == null) {
+            // 与Class.newInstance保持一致，无参时找不到构造器直接抛出异常
+            if (params.length == 0) {
+                throw new InstantiationException(cla.getName());
+            }
+            return null;
+        }
+        return factory.newInstance(params);
+    }
+
+    /**
+     * 获取类的实例工厂。与Class.getConstructors一致只查找公开构造器，优先匹配参数类型完全一致的构造器，其次匹配参数类型可赋值的构造器。
+     * 公开构造器所在的类不是公开类时，工厂同样可以产生实例。工厂按类与参数类型缓存，未找到的结果同样会被缓存，
+     * 每个类的缓存数量有上限。
+     *
+     * @param cla        目标类
+     * @param paramTypes 构造器参数类型，null元素可匹配任意非基础类型参数
+     * @param <T>        实例类
+     * @return 实例工厂，没有匹配的公开构造器或类无法实例化时返回null
+     */
+    public static <T> InstanceFactory<T> factory(Class<T> cla, Class<?>... paramTypes) {
+        return factory(cla, false, paramTypes);
+    }
+
+    /**
+     * 获取类的无参实例工厂，包括非公开的无参构造器。供深拷贝等需要创建任意对象的内部功能使用。
+     *
+     * @param cla 目标类
+     * @param <T> 实例类
+     * @return 实例工厂，没有无参构造器或类无法实例化时返回null
+     */
+    static <T> InstanceFactory<T> declaredFactory(Class<T> cla) {
+        return factory(cla, true, NO_TYPES);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> InstanceFactory<T> factory(Class<T> cla, boolean declared, Class<?>[] paramTypes) {
+        Map<ConstructorKey, Optional<InstanceFactory<?>>> factoryMap = FACTORIES.get(cla);
+        Optional<InstanceFactory<?>> factory = factoryMap.get(new ConstructorKey(declared, paramTypes));
+        if (factory == null) {
+            Constructor<T> constructor = findConstructor(cla, declared, paramTypes);
+            factory = Optional.ofNullable(constructor == null ? null : new InstanceFactory<>(constructor));
+            if (factoryMap.size() < MAX_FACTORIES && isCacheable(cla, paramTypes)) {
+                // 参数类型数组可能被调用方复用，缓存时复制
+                Optional<InstanceFactory<?>> old = factoryMap.putIfAbsent(new ConstructorKey(declared, paramTypes.clone()), factory);
+                if (old != null) {
+                    factory = old;
+                }
+            }
+        }
+        return (InstanceFactory<T>) factory.orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> findConstructor(Class<T> cla, boolean declared, Class<?>[] paramTypes) {
+        if (cla.isInterface() || cla.isArray() || cla.isPrimitive() || Modifier.isAbstract(cla.getModifiers())) {
+            return null;
+        }
+        // 参数类型完全一致
+        try {
+            return declared ? cla.getDeclaredConstructor(paramTypes) : cla.getConstructor(paramTypes);
+        } catch (NoSuchMethodException ignored) {
         }
         // 遍历构造器查询对应参数的构造器方法
-        Constructor<?>[] constructors = cla.getConstructors();
         LOOP_constructor:
-        for (Constructor<?> constructor : constructors) {
+        for (Constructor<?> constructor : cla.getConstructors()) {
             // 如果构造器参数数量相同则进一步验证
-            if (constructor.getParameterCount() == params.length) {
+            if (constructor.getParameterCount() == paramTypes.length) {
                 Class<?>[] types = constructor.getParameterTypes();
-                // 遍历构造器参数并逐一校验参数类型是否相同
+                // 遍历构造器参数并逐一校验参数类型是否匹配
                 for (int i = 0; i < types.length; i++) {
-                    // 参数不相同则跳过此构造器
-                    if (!noPrimitive(types[i]).isAssignableFrom(params[i].getClass())) {
+                    Class<?> paramType = paramTypes[i];
+                    if (paramType == null ? types[i].isPrimitive() : !isAssignable(types[i], paramType)) {
                         continue LOOP_constructor;
                     }
                 }
-                return (T) constructor.newInstance(params);
+                return (Constructor<T>) constructor;
             }
         }
         return null;
@@ -312,4 +447,164 @@ public class ReflectUtil {
         }
         return false;
     }
+
+    /**
+     * 判断source类型的值是否可以赋值给target类型，包括子类赋值、装箱拆箱与基础类型的宽化转换。
+     *
+     * @param target 被赋值类型
+     * @param source 值类型
+     * @return 是否可以赋值
+     */
+    public static boolean isAssignable(Class<?> target, Class<?> source) {
+        if (target == source || target.isAssignableFrom(source)) {
+            return true;
+        }
+        if (target.isPrimitive()) {
+            Class<?> primitive = toPrimitive(source);
+            return primitive.isPrimitive() && isWidening(target, primitive);
+        }
+        return source.isPrimitive() && target.isAssignableFrom(noPrimitive(source));
+    }
+
+    /**
+     * 判断基础类型之间是否是相同类型或宽化转换
+     *
+     * @param target 被赋值的基础类型
+     * @param source 值的基础类型
+     * @return 是否可以宽化转换
+     */
+    private static boolean isWidening(Class<?> target, Class<?> source) {
+        if (target == source) {
+            return true;
+        }
+        if (source == byte.class) {
+            return target == short.class || target == int.class || target == long.class
+                    || target == float.class || target == double.class;
+        } else if (source == short.class || source == char.class) {
+            return target == int.class || target == long.class
+                    || target == float.class || target == double.class;
+        } else if (source == int.class) {
+            return target == long.class || target == float.class || target == double.class;
+        } else if (source == long.class) {
+            return target == float.class || target == double.class;
+        } else if (source == float.class) {
+            return target == double.class;
+        }
+        return false;
+    }
+
+    /**
+     * 类的泛型表，包括继承的父类与接口中的泛型绑定
+     */
+    private static final class GenericsTable {
+
+        /**
+         * 类的泛型表
+         */
+        private final Map<String, ClassGrc> genericsMap;
+
+        private GenericsTable(Class<?> cl) {
+            Map<String, ClassGrc> map = new HashMap<>();
+            // 从继承的类中寻求泛型
+            merge(map, cl.getGenericSuperclass());
+            // 从继承的接口中寻求泛型
+            for (Type iType : cl.getGenericInterfaces()) {
+                merge(map, iType);
+            }
+            this.genericsMap = Collections.unmodifiableMap(map);
+        }
+
+        private void merge(Map<String, ClassGrc> map, Type type) {
+            if (type instanceof ParameterizedType) {
+                map.putAll(buildGenericsMap((ParameterizedType) type));
+            } else if (type instanceof Class) {
+                // 非泛型父类仍可能从更上层继承泛型
+                for (Map.Entry<String, ClassGrc> grcEntry : GENERICS_TABLES.get((Class<?>) type).genericsMap.entrySet()) {
+                    map.putIfAbsent(grcEntry.getKey(), grcEntry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * 判断类型是否都由目标类的类加载器或其父加载器加载，这类类型不会比目标类更早被回收，可以放入目标类的缓存
+     *
+     * @param owner 缓存所属类
+     * @param types 缓存键中的类型，null元素会被忽略
+     * @return 是否可以缓存
+     */
+    static boolean isCacheable(Class<?> owner, Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (type != null && !isCacheable(owner, type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断类型是否由目标类的类加载器或其父加载器加载
+     *
+     * @param owner 缓存所属类
+     * @param type  缓存键中的类型
+     * @return 是否可以缓存
+     */
+    static boolean isCacheable(Class<?> owner, Class<?> type) {
+        ClassLoader typeLoader = type.getClassLoader();
+        if (typeLoader == null) {
+            return true;
+        }
+        for (ClassLoader l = owner.getClassLoader(); l != null; l = l.getParent()) {
+            if (l == typeLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 真实类信息缓存容器，构建时可能抛出受检异常，因此不直接由ClassValue构建
+     */
+    private static final class ActualClassHolder {
+
+        private volatile ActualClass actualClass;
+    }
+
+    /**
+     * 构造器缓存键
+     */
+    private static final class ConstructorKey {
+
+        /**
+         * 是否包括非公开构造器
+         */
+        private final boolean declared;
+
+        private final Class<?>[] paramTypes;
+
+        private final int hash;
+
+        private ConstructorKey(boolean declared, Class<?>[] paramTypes) {
+            this.declared = declared;
+            this.paramTypes = paramTypes;
+            this.hash = Arrays.hashCode(paramTypes) * 31 + (declared ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConstructorKey)) {
+                return false;
+            }
+            ConstructorKey key = (ConstructorKey) o;
+            return hash == key.hash && declared == key.declared && Arrays.equals(paramTypes, key.paramTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
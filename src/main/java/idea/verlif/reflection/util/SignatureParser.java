@@ -0,0 +1,314 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.domain.ClassGrc;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 泛型签名解析器。按JVMS 4.7.9.1的签名语法，以游标方式单次遍历签名字符串。
+ */
+final class SignatureParser {
+
+    private static final ClassGrc OBJECT_CLASS_GRC = ClassGrc.of(Object.class);
+
+    /**
+     * 类名缓存，以解析上下文类分组，使用上下文类的类加载器加载
+     */
+    private static final ClassValue<Map<String, Class<?>>> CLASS_CACHE = new ClassValue<Map<String, Class<?>>>() {
+        @Override
+        protected Map<String, Class<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * 签名字符串
+     */
+    private final String signature;
+
+    /**
+     * 解析上下文类，用于加载签名中的类
+     */
+    private final Class<?> context;
+
+    /**
+     * 泛型表
+     */
+    private Map<String, ClassGrc> genericsMap;
+
+    /**
+     * 类名构建缓冲
+     */
+    private final StringBuilder nameBuilder = new StringBuilder();
+
+    /**
+     * 当前游标
+     */
+    private int pos;
+
+    SignatureParser(String signature, Map<String, ClassGrc> genericsMap, Class<?> context) {
+        this.signature = signature;
+        this.genericsMap = genericsMap;
+        this.context = context == null ? SignatureParser.class : context;
+    }
+
+    /**
+     * @return 是否已解析到签名末尾
+     */
+    boolean atEnd() {
+        return pos >= signature.length();
+    }
+
+    /**
+     * 获取当前字符。签名末尾的分号可以省略，因此末尾位置视为分号
+     */
+    private char peek() {
+        int length = signature.length();
+        if (pos < length) {
+            return signature.charAt(pos);
+        } else if (pos == length) {
+            return ';';
+        }
+        throw new IllegalArgumentException("Unexpected end of signature - " + signature);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw new IllegalArgumentException("Expected '" + c + "' at " + pos + " - " + signature);
+        }
+        pos++;
+    }
+
+    /**
+     * 跳过签名末尾可省略的分号
+     */
+    private void skipTerminator() {
+        if (pos < signature.length() && signature.charAt(pos) == ';') {
+            pos++;
+        }
+    }
+
+    /**
+     * 解析类型签名：基础类型或引用类型
+     */
+    ClassGrc parseJavaType() throws ClassNotFoundException {
+        char c = peek();
+        Class<?> primitive = primitiveOf(c);
+        if (primitive != null) {
+            pos++;
+            return ClassGrc.of(primitive);
+        }
+        return parseReferenceType();
+    }
+
+    /**
+     * 解析引用类型签名：类、泛型变量或数组
+     */
+    ClassGrc parseReferenceType() throws ClassNotFoundException {
+        switch (peek()) {
+            case 'L':
+                return parseClassType();
+            case 'T':
+                return parseTypeVariable();
+            case '[':
+                pos++;
+                ClassGrc component = parseJavaType();
+                Class<?> arrayClass = Array.newInstance(component.getTarget(), 0).getClass();
+                return ClassGrc.of(arrayClass, component.getGenericsInfos());
+            default:
+                throw new IllegalArgumentException("Unexpected '" + peek() + "' at " + pos + " - " + signature);
+        }
+    }
+
+    private ClassGrc parseClassType() throws ClassNotFoundException {
+        expect('L');
+        nameBuilder.setLength(0);
+        ClassGrc[] generics = ClassGrc.EMPTY_GENERICS;
+        while (true) {
+            char c = peek();
+            if (c == ';') {
+                pos++;
+                break;
+            } else if (c == '<') {
+                generics = parseTypeArguments();
+            } else if (c == '.') {
+                // 内部类，泛型只保留最内层类的泛型
+                nameBuilder.append('$');
+                generics = ClassGrc.EMPTY_GENERICS;
+                pos++;
+            } else {
+                nameBuilder.append(c == '/' ? '.' : c);
+                pos++;
+            }
+        }
+        return ClassGrc.of(loadClass(nameBuilder.toString()), generics);
+    }
+
+    private ClassGrc[] parseTypeArguments() throws ClassNotFoundException {
+        expect('<');
+        // 类名缓冲会被嵌套泛型复用，这里先保存外层类名
+        String outer = nameBuilder.toString();
+        List<ClassGrc> arguments = new ArrayList<>();
+        while (peek() != '>') {
+            char c = peek();
+            if (c == '*') {
+                pos++;
+                arguments.add(OBJECT_CLASS_GRC);
+            } else {
+                // 上下界通配符都使用边界类型
+                if (c == '+' || c == '-') {
+                    pos++;
+                }
+                arguments.add(parseReferenceType());
+            }
+        }
+        pos++;
+        nameBuilder.setLength(0);
+        nameBuilder.append(outer);
+        return arguments.toArray(ClassGrc.EMPTY_GENERICS);
+    }
+
+    private ClassGrc parseTypeVariable() {
+        expect('T');
+        int start = pos;
+        while (peek() != ';') {
+            pos++;
+        }
+        String key = signature.substring(start, pos);
+        skipTerminator();
+        ClassGrc classGrc = genericsMap.get(key);
+        return classGrc == null ? OBJECT_CLASS_GRC : classGrc;
+    }
+
+    /**
+     * 解析泛型参数定义，并将泛型参数的边界类型加入泛型表。泛型表会被替换为新的表，不影响原表。
+     */
+    void parseTypeParameters() throws ClassNotFoundException {
+        if (peek() != '<') {
+            return;
+        }
+        pos++;
+        genericsMap = new HashMap<>(genericsMap);
+        while (peek() != '>') {
+            int start = pos;
+            while (peek() != ':') {
+                pos++;
+            }
+            String name = signature.substring(start, pos);
+            ClassGrc bound = null;
+            // 类边界可能为空，随后是任意数量的接口边界
+            while (peek() == ':') {
+                pos++;
+                char c = peek();
+                if (c == 'L' || c == 'T' || c == '[') {
+                    ClassGrc classGrc = parseReferenceType();
+                    if (bound == null) {
+                        bound = classGrc;
+                    }
+                }
+            }
+            genericsMap.put(name, bound == null ? OBJECT_CLASS_GRC : bound);
+        }
+        pos++;
+    }
+
+    /**
+     * 解析方法签名，返回数组首位为返回值（void时为null），其后为参数
+     */
+    ClassGrc[] parseMethod() throws ClassNotFoundException {
+        parseTypeParameters();
+        expect('(');
+        List<ClassGrc> list = new ArrayList<>();
+        list.add(null);
+        while (peek() != ')') {
+            list.add(parseJavaType());
+        }
+        pos++;
+        if (peek() == 'V') {
+            pos++;
+        } else {
+            list.set(0, parseJavaType());
+        }
+        // 异常签名不参与解析结果
+        pos = signature.length();
+        return list.toArray(ClassGrc.EMPTY_GENERICS);
+    }
+
+    /**
+     * 跳过一个完整的类型签名，不加载任何类
+     */
+    void skipJavaType() {
+        int length = signature.length();
+        char c = peek();
+        if (c == '[' || c == '+' || c == '-') {
+            pos++;
+            skipJavaType();
+        } else if (c == 'L') {
+            while (pos < length) {
+                c = signature.charAt(pos);
+                if (c == ';') {
+                    pos++;
+                    return;
+                } else if (c == '<') {
+                    pos++;
+                    while (pos < length && signature.charAt(pos) != '>') {
+                        skipJavaType();
+                    }
+                }
+                pos++;
+            }
+        } else if (c == 'T') {
+            while (pos < length && signature.charAt(pos++) != ';') {
+                // 跳过泛型变量名
+            }
+        } else if (pos < length) {
+            // 基础类型或无界通配符
+            pos++;
+        }
+    }
+
+    /**
+     * @return 当前游标
+     */
+    int position() {
+        return pos;
+    }
+
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+        Map<String, Class<?>> cache = CLASS_CACHE.get(context);
+        Class<?> cl = cache.get(name);
+        if (cl == null) {
+            cl = Class.forName(name, false, context.getClassLoader());
+            cache.putIfAbsent(name, cl);
+        }
+        return cl;
+    }
+
+    private static Class<?> primitiveOf(char c) {
+        switch (c) {
+            case 'B':
+                return byte.class;
+            case 'C':
+                return char.class;
+            case 'D':
+                return double.class;
+            case 'F':
+                return float.class;
+            case 'I':
+                return int.class;
+            case 'J':
+                return long.class;
+            case 'S':
+                return short.class;
+            case 'Z':
+                return boolean.class;
+            default:
+                return null;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package idea.verlif.reflection.util;
 
 import idea.verlif.reflection.domain.ClassGrc;
+import idea.verlif.reflection.domain.MethodGrc;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -31,90 +34,61 @@ public class SignatureUtil {
         return sig;
     }
 
+    /**
+     * 解析类型签名
+     *
+     * @param signature   类型签名，末尾分号可省略
+     * @param genericsMap 泛型表，不会被修改
+     * @return 类型的泛型信息
+     */
     public static ClassGrc parseClassBySignature(String signature, Map<String, ClassGrc> genericsMap) throws ClassNotFoundException {
-        // 去除尾部可能有的分号
-        if (signature.charAt(signature.length() - 1) == ';') {
-            signature = signature.substring(0, signature.length() - 1);
-        }
-        // 判断是否有泛型定义
-        int tag = signature.indexOf('<');
-        // 不含有泛型
-        if (tag < 0) {
-            // 判断是否是数组
-            if (signature.charAt(0) == '[') {
-                int i = 1;
-                while (signature.charAt(i) == '[') {
-                    i++;
-                }
-                Class<?> cl;
-                if (signature.charAt(i) == 'L') {
-                    cl = Class.forName(signature + ";");
-                } else if (signature.charAt(i) == 'T') {
-                    return getClassGrcFromKey(signature.substring(i + 1), genericsMap);
-                } else {
-                    cl = Class.forName(signature);
-                }
-                return new ClassGrc(cl);
-            }
-            // 判断自身是否是泛型
-            if (signature.charAt(0) == 'T' || signature.charAt(0) == '*') {
-                signature = signature.substring(1);
-                return getClassGrcFromKey(signature, genericsMap);
-            } else {
-                signature = signature.substring(1).replace("/", ".");
-                Class<?> cl = Class.forName(signature);
-                return new ClassGrc(cl);
-            }
-        } else {
-            String tarName = signature.substring(1, tag).replace("/", ".");
-            String genericsStr = signature.substring(tag + 1, signature.length() - 1);
-            List<String> genericsNames = splitSignature(genericsStr);
-            ClassGrc[] genericsInfo = new ClassGrc[genericsNames.size()];
-            for (int i = 0; i < genericsNames.size(); i++) {
-                if (genericsNames.get(i).length() > 0) {
-                    genericsInfo[i] = parseClassBySignature(genericsNames.get(i), genericsMap);
-                }
-            }
-            Class<?> target = Class.forName(tarName);
-            return new ClassGrc(target, genericsInfo);
-        }
+        return parseClassBySignature(signature, genericsMap, null);
+    }
+
+    /**
+     * 解析类型签名
+     *
+     * @param signature   类型签名，末尾分号可省略
+     * @param genericsMap 泛型表，不会被修改
+     * @param context     签名所属的类，签名中的类通过其类加载器加载。为null时使用工具类的类加载器
+     * @return 类型的泛型信息
+     */
+    public static ClassGrc parseClassBySignature(String signature, Map<String, ClassGrc> genericsMap, Class<?> context) throws ClassNotFoundException {
+        return new SignatureParser(signature, genericsMap, context).parseJavaType();
     }
 
+    /**
+     * 解析方法签名
+     *
+     * @param method      签名所属方法
+     * @param signature   方法签名
+     * @param genericsMap 泛型表，不会被修改。方法自身的泛型参数以其边界类型解析
+     * @return 方法泛型信息，无返回值时返回值信息为null
+     */
+    public static MethodGrc parseMethodBySignature(Method method, String signature, Map<String, ClassGrc> genericsMap) throws ClassNotFoundException {
+        ClassGrc[] infos = new SignatureParser(signature, genericsMap, method.getDeclaringClass()).parseMethod();
+        ClassGrc[] arguments = infos.length == 1 ? ClassGrc.EMPTY_GENERICS : Arrays.copyOfRange(infos, 1, infos.length);
+        return new MethodGrc(method, infos[0], arguments);
+    }
+
+    /**
+     * 拆分连续的类型签名
+     *
+     * @param signatureStr 连续的类型签名
+     * @return 类型签名列表，每个签名不包括末尾分号
+     */
     public static List<String> splitSignature(String signatureStr) {
         List<String> list = new ArrayList<>();
-        if (signatureStr.indexOf('<') == -1) {
-            Collections.addAll(list, signatureStr.split(";"));
-        } else {
-            char[] chars = signatureStr.toCharArray();
-            int count = 0;
-            for (int i = 0; i < chars.length; i++) {
-                char c = chars[i];
-                if (c == ';' && count == 0) {
-                    if (i == chars.length - 1) {
-                        break;
-                    } else {
-                        list.add(signatureStr.substring(0, i++));
-                        signatureStr = signatureStr.substring(i);
-                    }
-                } else if (c == '<') {
-                    count++;
-                } else if (c == '>') {
-                    count--;
-                }
-            }
-            if (signatureStr.length() > 0) {
-                list.add(signatureStr);
+        SignatureParser parser = new SignatureParser(signatureStr, Collections.<String, ClassGrc>emptyMap(), null);
+        int start = 0;
+        while (!parser.atEnd()) {
+            parser.skipJavaType();
+            int end = Math.min(parser.position(), signatureStr.length());
+            if (end > start) {
+                list.add(signatureStr.substring(start, signatureStr.charAt(end - 1) == ';' ? end - 1 : end));
             }
+            start = end;
         }
         return list;
     }
-
-    private static ClassGrc getClassGrcFromKey(String key, Map<String, ClassGrc> genericsMap) {
-        ClassGrc classGrc = genericsMap.get(key);
-        if (classGrc == null) {
-            classGrc = new ClassGrc();
-            genericsMap.put(key, classGrc);
-        }
-        return classGrc;
-    }
 }
@@ -0,0 +1,332 @@
+package idea.verlif.reflection.util;
+
+import idea.verlif.reflection.domain.ActualClass;
+import idea.verlif.reflection.domain.ClassGrc;
+import idea.verlif.reflection.domain.FieldGrc;
+import idea.verlif.reflection.domain.MethodGrc;
+import idea.verlif.reflection.metrics.CacheRegion;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 元数据快照工具。将类的属性与方法泛型信息写入二进制快照文件，下次启动时通过内存映射读取并预先构建真实类信息。<br/>
+ * 每个类都记录了结构指纹，类的属性、方法、父类或接口发生变化后，对应的快照条目会被忽略。
+ *
+ * @author Verlif
+ */
+public class SnapshotUtil {
+
+    /**
+     * 文件头标识，"RKS"与格式版本
+     */
+    private static final int MAGIC = 0x524B5301;
+
+    /**
+     * 类泛型信息的最大嵌套层数，超过时视为文件损坏
+     */
+    private static final int MAX_DEPTH = 64;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 类结构指纹缓存，已加载的类结构不会再变化
+     */
+    private static final ClassValue<Long> FINGERPRINTS = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long hash = type.getSuperclass() == null ? FNV_OFFSET : fingerprint(type.getSuperclass());
+            hash = fnv(hash, type.getName());
+            // 父类的泛型参数决定了继承属性的泛型信息
+            Type superclass = type.getGenericSuperclass();
+            if (superclass != null) {
+                hash = fnv(hash, superclass.getTypeName());
+            }
+            // 接口的泛型参数决定了默认方法的泛型信息
+            for (Type genericInterface : type.getGenericInterfaces()) {
+                hash = fnv(hash, genericInterface.getTypeName());
+            }
+            // 声明顺序不保证稳定，排序后再计算
+            List<String> members = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                members.add(field.toGenericString());
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                members.add(method.toGenericString());
+            }
+            Collections.sort(members);
+            for (String member : members) {
+                hash = fnv(hash, member);
+            }
+            return hash;
+        }
+    };
+
+    /**
+     * 基础类型名与基础类型的对应表
+     */
+    static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> cl : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class}) {
+            PRIMITIVES.put(cl.getName(), cl);
+        }
+    }
+
+    /**
+     * 将类的元数据写入快照文件，已存在的文件会被覆盖
+     *
+     * @param file    快照文件
+     * @param classes 需要写入的类
+     * @throws IOException 文件写入失败
+     */
+    public static void save(Path file, Collection<Class<?>> classes) throws IOException {
+        // 字符串表在前，类条目只保存字符串序号
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream entries = new ByteArrayOutputStream(4096);
+        DataOutputStream entryOut = new DataOutputStream(entries);
+        entryOut.writeInt(classes.size());
+        for (Class<?> cl : classes) {
+            ActualClass actualClass;
+            try {
+                actualClass = ReflectUtil.getActualClass(cl);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+            entryOut.writeInt(index(strings, cl.getName()));
+            entryOut.writeLong(fingerprint(cl));
+            Map<String, FieldGrc> fieldGrcMap = actualClass.getFieldGrcMap();
+            entryOut.writeInt(fieldGrcMap.size());
+            for (Map.Entry<String, FieldGrc> entry : fieldGrcMap.entrySet()) {
+                entryOut.writeInt(index(strings, entry.getKey()));
+                writeClassGrc(entryOut, strings, entry.getValue());
+            }
+            Map<String, MethodGrc> methodGrcMap = actualClass.getMethodGrcMap();
+            entryOut.writeInt(methodGrcMap.size());
+            for (Map.Entry<String, MethodGrc> entry : methodGrcMap.entrySet()) {
+                MethodGrc methodGrc = entry.getValue();
+                entryOut.writeInt(index(strings, entry.getKey()));
+                entryOut.writeBoolean(methodGrc.getResult() != null);
+                if (methodGrc.getResult() != null) {
+                    writeClassGrc(entryOut, strings, methodGrc.getResult());
+                }
+                ClassGrc[] arguments = methodGrc.getArguments();
+                entryOut.writeInt(arguments.length);
+                for (ClassGrc argument : arguments) {
+                    writeClassGrc(entryOut, strings, argument);
+                }
+            }
+        }
+        entryOut.flush();
+
+        try (OutputStream os = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(MAGIC);
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            entries.writeTo(out);
+        }
+    }
+
+    /**
+     * 读取快照文件并预先构建其中类的真实类信息，使用当前线程的上下文类加载器加载类
+     *
+     * @param file 快照文件
+     * @return 成功载入的类数量
+     * @throws IOException 文件读取失败或文件格式错误
+     */
+    public static int load(Path file) throws IOException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return load(file, loader == null ? SnapshotUtil.class.getClassLoader() : loader);
+    }
+
+    /**
+     * 读取快照文件并预先构建其中类的真实类信息。不存在的类与指纹不一致的类会被忽略，已构建的类不受影响。
+     *
+     * @param file   快照文件
+     * @param loader 加载快照中类的类加载器
+     * @return 成功载入的类数量
+     * @throws IOException 文件读取失败或文件格式错误
+     */
+    public static int load(Path file, ClassLoader loader) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return load(buffer, loader);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted snapshot - " + file, e);
+        }
+    }
+
+    private static int load(ByteBuffer buffer, ClassLoader loader) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Unsupported snapshot format");
+        }
+        String[] strings = new String[count(buffer, 4)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[count(buffer, 1)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        Map<String, Class<?>> classCache = new HashMap<>();
+        int loaded = 0;
+        int classCount = count(buffer, 20);
+        for (int c = 0; c < classCount; c++) {
+            String className = strings[buffer.getInt()];
+            long fingerprint = buffer.getLong();
+            Class<?> cl = loadClass(className, loader, classCache);
+            boolean valid = cl != null && fingerprint(cl) == fingerprint;
+            if (cl != null && !valid) {
+                MetricsUtil.evicted(CacheRegion.SNAPSHOT, cl);
+            }
+            // 失效条目仍需读取完整，才能定位到下一个条目，但不再加载其中的类
+            ClassLoader entryLoader = valid ? loader : null;
+            Map<String, ClassGrc> fieldSnapshot = new HashMap<>();
+            int fieldCount = count(buffer, 12);
+            for (int i = 0; i < fieldCount; i++) {
+                String name = strings[buffer.getInt()];
+                ClassGrc classGrc = readClassGrc(buffer, strings, entryLoader, classCache, 0);
+                if (classGrc != null) {
+                    fieldSnapshot.put(name, classGrc);
+                }
+            }
+            Map<String, ClassGrc[]> methodSnapshot = new HashMap<>();
+            int methodCount = count(buffer, 9);
+            for (int i = 0; i < methodCount; i++) {
+                String key = strings[buffer.getInt()];
+                boolean hasResult = buffer.get() != 0;
+                ClassGrc result = hasResult ? readClassGrc(buffer, strings, entryLoader, classCache, 0) : null;
+                boolean complete = !hasResult || result != null;
+                ClassGrc[] classGrcs = new ClassGrc[count(buffer, 8) + 1];
+                classGrcs[0] = result;
+                for (int j = 1; j < classGrcs.length; j++) {
+                    classGrcs[j] = readClassGrc(buffer, strings, entryLoader, classCache, 0);
+                    complete &= classGrcs[j] != null;
+                }
+                // 其中的类无法加载时交给实时解析
+                if (complete) {
+                    methodSnapshot.put(key, classGrcs);
+                }
+            }
+            if (valid) {
+                try {
+                    if (ReflectUtil.preloadActualClass(cl, fieldSnapshot, methodSnapshot)) {
+                        loaded++;
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 读取元素数量，并校验剩余数据足够容纳这些元素，避免损坏的文件导致负数长度或过大的数组
+     *
+     * @param minBytes 每个元素至少占用的字节数
+     */
+    private static int count(ByteBuffer buffer, int minBytes) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * minBytes > buffer.remaining()) {
+            throw new IOException("Invalid count " + count + " at position " + (buffer.position() - 4));
+        }
+        return count;
+    }
+
+    private static int index(Map<String, Integer> strings, String s) {
+        Integer index = strings.get(s);
+        if (index == null) {
+            index = strings.size();
+            strings.put(s, index);
+        }
+        return index;
+    }
+
+    private static void writeClassGrc(DataOutputStream out, Map<String, Integer> strings, ClassGrc classGrc) throws IOException {
+        out.writeInt(index(strings, classGrc.getTarget().getName()));
+        int count = classGrc.getGenericsCount();
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            writeClassGrc(out, strings, classGrc.getGenericsInfo(i));
+        }
+    }
+
+    /**
+     * 读取类泛型信息，其中的类无法加载时返回null
+     *
+     * @param loader 类加载器，为null时只跳过数据，不加载类
+     * @param depth  当前嵌套层数
+     */
+    private static ClassGrc readClassGrc(ByteBuffer buffer, String[] strings, ClassLoader loader, Map<String, Class<?>> classCache, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Generic nesting too deep at position " + buffer.position());
+        }
+        String className = strings[buffer.getInt()];
+        Class<?> target = loader == null ? null : loadClass(className, loader, classCache);
+        int count = count(buffer, 8);
+        ClassGrc[] generics = count == 0 ? ClassGrc.EMPTY_GENERICS : new ClassGrc[count];
+        boolean complete = target != null;
+        for (int i = 0; i < count; i++) {
+            generics[i] = readClassGrc(buffer, strings, loader, classCache, depth + 1);
+            complete &= generics[i] != null;
+        }
+        return complete ? ClassGrc.of(target, generics) : null;
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader loader, Map<String, Class<?>> classCache) {
+        Class<?> cl = PRIMITIVES.get(name);
+        if (cl == null && !classCache.containsKey(name)) {
+            try {
+                cl = Class.forName(name, false, loader);
+            } catch (ClassNotFoundException | LinkageError ignored) {
+            }
+            classCache.put(name, cl);
+        } else if (cl == null) {
+            cl = classCache.get(name);
+        }
+        return cl;
+    }
+
+    /**
+     * 计算类的结构指纹，由类及其父类的名称、泛型父类与接口、属性与方法的泛型声明组成
+     *
+     * @param cl 目标类
+     * @return 结构指纹
+     */
+    static long fingerprint(Class<?> cl) {
+        return FINGERPRINTS.get(cl);
+    }
+
+    private static long fnv(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // 分隔符，避免相邻字符串拼接后碰撞
+        hash ^= 0xff;
+        return hash * FNV_PRIME;
+    }
+
+}
@@ -0,0 +1,284 @@
+package idea.verlif.reflection.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预热工具。记录运行期间实际使用的类、属性、方法与拷贝类对，写入预热文件；下次启动时异步重放预热文件，提前构建各项缓存。<br/>
+ * 只有在缓存未命中时才会记录，因此需要在使用反射工具之前开始记录。
+ *
+ * @author Verlif
+ */
+public class WarmupUtil {
+
+    private static final String HEADER = "# reflection-kit warm-up profile v1";
+
+    private static final String CLASS = "class";
+    private static final String FIELD = "field";
+    private static final String METHOD = "method";
+    private static final String COPY = "copy";
+
+    /**
+     * 虚拟线程执行器的创建方法，当前运行环境不支持时为null
+     */
+    private static final Method VIRTUAL_EXECUTOR;
+
+    static {
+        Method method;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            method = null;
+        }
+        VIRTUAL_EXECUTOR = method;
+    }
+
+    /**
+     * 当前的记录，未在记录时为null
+     */
+    private static volatile Set<String> recording;
+
+    /**
+     * 开始记录，已在记录时清空已记录的内容
+     */
+    public static void startRecording() {
+        recording = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * 停止记录并丢弃已记录的内容
+     */
+    public static void stopRecording() {
+        recording = null;
+    }
+
+    /**
+     * @return 是否正在记录
+     */
+    public static boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * 将已记录的内容写入预热文件，已存在的文件会被覆盖。写入后继续记录。
+     *
+     * @param file 预热文件
+     * @return 写入的条目数量
+     * @throws IOException 文件写入失败
+     */
+    public static int save(Path file) throws IOException {
+        Set<String> current = recording;
+        if (current == null) {
+            throw new IllegalStateException("Not recording");
+        }
+        // 排序后写入，便于比较不同版本的预热文件
+        List<String> lines = new ArrayList<>(current);
+        Collections.sort(lines);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return lines.size();
+    }
+
+    /**
+     * 使用当前线程的上下文类加载器异步重放预热文件。支持虚拟线程时每个类使用一个虚拟线程，否则使用公共线程池。
+     *
+     * @param file 预热文件
+     * @return 重放结果，完成时返回成功预热的条目数量
+     * @throws IOException 文件读取失败
+     */
+    public static CompletableFuture<Integer> replay(Path file) throws IOException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return replay(file, loader == null ? WarmupUtil.class.getClassLoader() : loader, null);
+    }
+
+    /**
+     * 异步重放预热文件
+     *
+     * @param file     预热文件
+     * @param loader   加载预热文件中类的类加载器
+     * @param executor 执行预热任务的执行器，为null时支持虚拟线程则使用虚拟线程，否则使用公共线程池
+     * @return 重放结果，完成时返回成功预热的条目数量。不存在的类与成员会被忽略
+     * @throws IOException                文件读取失败
+     * @throws RejectedExecutionException 执行器拒绝了预热任务，此时已提交的任务仍会继续执行
+     */
+    public static CompletableFuture<Integer> replay(Path file, ClassLoader loader, Executor executor) throws IOException {
+        // 同一个类的条目由同一个任务处理，减少任务数量
+        Map<String, List<String[]>> groups = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] entry = line.split("\t", -1);
+                if (entry.length < 2) {
+                    throw new IOException("Malformed warm-up entry - " + line);
+                }
+                groups.computeIfAbsent(entry[1], k -> new ArrayList<>()).add(entry);
+            }
+        }
+        ExecutorService owned = null;
+        if (executor == null) {
+            owned = virtualExecutor();
+            executor = owned == null ? ForkJoinPool.commonPool() : owned;
+        }
+        AtomicInteger warmed = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[groups.size()];
+        int i = 0;
+        try {
+            for (List<String[]> entries : groups.values()) {
+                futures[i++] = CompletableFuture.runAsync(() -> {
+                    for (String[] entry : entries) {
+                        if (warm(entry, loader)) {
+                            warmed.incrementAndGet();
+                        }
+                    }
+                }, executor);
+            }
+        } catch (RuntimeException e) {
+            // 提交失败时不会再有完成回调，自行创建的执行器需要在这里关闭
+            if (owned != null) {
+                owned.shutdown();
+            }
+            throw e;
+        }
+        ExecutorService toShutdown = owned;
+        return CompletableFuture.allOf(futures).handle((v, e) -> {
+            if (toShutdown != null) {
+                toShutdown.shutdown();
+            }
+            return warmed.get();
+        });
+    }
+
+    /**
+     * 预热单个条目
+     *
+     * @return 是否预热成功
+     */
+    private static boolean warm(String[] entry, ClassLoader loader) {
+        try {
+            Class<?> cl = loadClass(entry[1], loader);
+            switch (entry[0]) {
+                case CLASS:
+                    ReflectUtil.getActualClass(cl);
+                    return true;
+                case FIELD:
+                    FieldUtil.accessor(cl.getDeclaredField(entry[2]));
+                    return true;
+                case METHOD: {
+                    Class<?>[] parameterTypes;
+                    if (entry[3].isEmpty()) {
+                        parameterTypes = new Class<?>[0];
+                    } else {
+                        String[] names = entry[3].split(",");
+                        parameterTypes = new Class<?>[names.length];
+                        for (int i = 0; i < names.length; i++) {
+                            parameterTypes[i] = loadClass(names[i], loader);
+                        }
+                    }
+                    MethodUtil.invoker(cl.getDeclaredMethod(entry[2], parameterTypes));
+                    return true;
+                }
+                case COPY:
+                    ObjectUtil.getCopyPlan(cl, loadClass(entry[2], loader));
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // 类或成员已不存在，预热文件与当前代码不一致
+            return false;
+        }
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader loader) throws ClassNotFoundException {
+        Class<?> cl = SnapshotUtil.PRIMITIVES.get(name);
+        return cl == null ? Class.forName(name, false, loader) : cl;
+    }
+
+    /**
+     * 创建虚拟线程执行器，当前运行环境不支持时返回null
+     */
+    private static ExecutorService virtualExecutor() {
+        if (VIRTUAL_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) VIRTUAL_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 记录真实类信息的构建
+     */
+    static void recordClass(Class<?> cl) {
+        Set<String> current = recording;
+        if (current != null) {
+            current.add(CLASS + '\t' + cl.getName());
+        }
+    }
+
+    /**
+     * 记录属性访问器的创建
+     */
+    static void recordField(Field field) {
+        Set<String> current = recording;
+        if (current != null) {
+            current.add(FIELD + '\t' + field.getDeclaringClass().getName() + '\t' + field.getName());
+        }
+    }
+
+    /**
+     * 记录方法执行器的创建
+     */
+    static void recordMethod(Method method) {
+        Set<String> current = recording;
+        if (current != null) {
+            StringBuilder sb = new StringBuilder(METHOD).append('\t')
+                    .append(method.getDeclaringClass().getName()).append('\t')
+                    .append(method.getName()).append('\t');
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(parameterTypes[i].getName());
+            }
+            current.add(sb.toString());
+        }
+    }
+
+    /**
+     * 记录拷贝计划的构建
+     */
+    static void recordCopy(Class<?> sourceClass, Class<?> targetClass) {
+        Set<String> current = recording;
+        if (current != null) {
+            current.add(COPY + '\t' + sourceClass.getName() + '\t' + targetClass.getName());
+        }
+    }
+}
@@ -1,18 +1,55 @@
 package idea.verlif.test;
 
+import idea.verlif.reflection.annotation.Reflective;
+import idea.verlif.reflection.domain.ActualClass;
+import idea.verlif.reflection.domain.ChangeSet;
+import idea.verlif.reflection.domain.ClassMetadata;
 import idea.verlif.reflection.domain.ClassGrc;
+import idea.verlif.reflection.domain.CopyPlan;
+import idea.verlif.reflection.domain.FieldAccessor;
+import idea.verlif.reflection.domain.MethodGrc;
+import idea.verlif.reflection.domain.MethodInvoker;
+import idea.verlif.reflection.domain.PropertyDescriptor;
+import idea.verlif.reflection.domain.SFunction;
+import idea.verlif.reflection.metrics.CacheRegion;
+import idea.verlif.reflection.metrics.CountingMetrics;
+import idea.verlif.reflection.metrics.Resolution;
+import idea.verlif.reflection.util.ConvertUtil;
 import idea.verlif.reflection.util.FieldUtil;
 import idea.verlif.reflection.util.MethodUtil;
+import idea.verlif.reflection.util.MetricsUtil;
 import idea.verlif.reflection.util.ObjectUtil;
 import idea.verlif.reflection.util.ReflectUtil;
+import idea.verlif.reflection.util.SignatureUtil;
+import idea.verlif.reflection.util.SnapshotUtil;
+import idea.verlif.reflection.util.WarmupUtil;
+import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import stopwatch.Stopwatch;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class SimpleTest {
 
@@ -30,6 +67,615 @@ public class SimpleTest {
         ObjectUtil.copy(a, c);
         ObjectUtil.copy(a, a2);
         System.out.println(b.a);
+        Assert.assertEquals(1.0, b.b, 0);
+    }
+
+    @Test
+    public void allFields() {
+        List<Field> fields = FieldUtil.getAllFields(C.class);
+        Assert.assertEquals(4, fields.size());
+        Assert.assertSame(fields, FieldUtil.getAllFields(C.class));
+        Predicate<Field> filter = field -> field.getType().isPrimitive();
+        Assert.assertEquals(2, FieldUtil.getAllFields(C.class, filter).size());
+        Assert.assertSame(FieldUtil.getAllFields(C.class, filter, true), FieldUtil.getAllFields(C.class, filter, true));
+        // 缓存已满后新的过滤器仍然返回正确结果，但不再缓存
+        for (int i = 0; i < 20; i++) {
+            int size = i % 5;
+            Predicate<Field> limit = field -> field.getName().charAt(0) - 'a' < size;
+            List<Field> list = FieldUtil.getAllFields(P.class, limit, true);
+            Assert.assertEquals(Math.min(size, 4), list.size());
+            Assert.assertEquals(i < 16, list == FieldUtil.getAllFields(P.class, limit, true));
+        }
+    }
+
+    @Test
+    public void accessor() throws Exception {
+        A a = new A();
+        Field field = FieldUtil.getField(A.class, "b");
+        FieldAccessor accessor = FieldUtil.accessor(field);
+        Assert.assertSame(accessor, FieldUtil.accessor(field));
+        accessor.set(a, 12);
+        Assert.assertEquals(12, accessor.get(a));
+        Assert.assertEquals(12, FieldUtil.getFieldValue(a, "b"));
+        Assert.assertFalse(field.isAccessible());
+    }
+
+    @Test
+    public void copyPlan() throws Exception {
+        Assert.assertEquals(2, ObjectUtil.getCopyPlan(A.class, B.class).size());
+        Assert.assertEquals(4, ObjectUtil.getCopyPlan(A.class, C.class).size());
+        Assert.assertSame(ObjectUtil.getCopyPlan(A.class, B.class), ObjectUtil.getCopyPlan(A.class, B.class));
+        // 类加载器互不可见的类之间不缓存拷贝计划
+        URL location = SimpleTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{location}, null)) {
+            Class<?> isolated = loader.loadClass(P.class.getName());
+            Assert.assertEquals(4, ObjectUtil.getCopyPlan(P.class, isolated).size());
+            Assert.assertNotSame(ObjectUtil.getCopyPlan(P.class, isolated), ObjectUtil.getCopyPlan(P.class, isolated));
+        }
+    }
+
+    @Test
+    public void primitiveCopy() {
+        P p = new P();
+        p.a = 1000;
+        p.b = 100000L;
+        p.c = 3.5;
+        p.d = 'x';
+        Q q = new Q();
+        ObjectUtil.copy(p, q);
+        Assert.assertEquals(1000, q.a);
+        Assert.assertEquals(100000L, q.b);
+        Assert.assertEquals(3.5, q.c, 0);
+        Assert.assertEquals('x', q.d);
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) bean;
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < 200000; i++) {
+            ObjectUtil.copy(p, q);
+        }
+        long before = mx.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100000; i++) {
+            ObjectUtil.copy(p, q);
+        }
+        long allocated = mx.getThreadAllocatedBytes(id) - before;
+        // 基础类型拷贝不应为每个属性分配包装对象
+        Assert.assertTrue("allocated " + allocated + " bytes", allocated < 100000);
+    }
+
+    @Test
+    public void copyAll() {
+        List<P> sources = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            P p = new P();
+            p.a = i;
+            sources.add(i == 5 ? null : p);
+        }
+        List<Q> targets = ObjectUtil.copyAll(sources, Q::new);
+        Assert.assertEquals(sources.size(), targets.size());
+        Assert.assertNull(targets.get(5));
+        Assert.assertEquals(19999, targets.get(19999).a);
+        Q[] array = ObjectUtil.copyAll(sources.subList(0, 10).toArray(), Q::new, Q[]::new);
+        Assert.assertEquals(9, array[9].a);
+    }
+
+    @Test
+    public void deepCopy() {
+        A a = new A();
+        a.a = "a";
+        a.b = 1;
+        B b = new B();
+        a.o = b;
+        b.o = a;
+        b.list = new ArrayList<>(Arrays.asList(a, b, "s"));
+        b.ints = new int[]{1, 2};
+        b.sorted = new TreeSet<>(java.util.Comparator.reverseOrder());
+        b.sorted.addAll(Arrays.asList("x", "y"));
+        A copy = ObjectUtil.deepCopy(a);
+        Assert.assertNotSame(a, copy);
+        Assert.assertNotSame(b, copy.o);
+        Assert.assertSame(copy, copy.o.o);
+        Assert.assertSame(copy, copy.o.list.get(0));
+        Assert.assertSame(copy.o, copy.o.list.get(1));
+        Assert.assertSame("s", copy.o.list.get(2));
+        Assert.assertNotSame(b.ints, copy.o.ints);
+        Assert.assertArrayEquals(b.ints, copy.o.ints);
+        Assert.assertEquals(1, copy.b);
+        Assert.assertNotSame(b.sorted, copy.o.sorted);
+        Assert.assertEquals("y", copy.o.sorted.first());
+
+        // 长链不会栈溢出
+        Node head = new Node();
+        Node node = head;
+        for (int i = 0; i < 100000; i++) {
+            node.next = new Node();
+            node = node.next;
+        }
+        Node headCopy = ObjectUtil.deepCopy(head);
+        Assert.assertNotSame(head.next, headCopy.next);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deepCopyJdkTypes() {
+        StringBuilder builder = new StringBuilder("sb");
+        List<Object> root = new ArrayList<>();
+        root.add(Arrays.asList("a", builder));
+        root.add(Collections.unmodifiableList(new ArrayList<>(Collections.singletonList(builder))));
+        SortedSet<String> sorted = new TreeSet<>(java.util.Comparator.reverseOrder());
+        sorted.addAll(Arrays.asList("x", "y"));
+        root.add(Collections.unmodifiableSortedSet(sorted));
+        root.add(Collections.synchronizedMap(new HashMap<>(Collections.singletonMap("k", builder))));
+        root.add(new java.util.concurrent.atomic.AtomicInteger(3));
+        root.add(new java.util.concurrent.atomic.AtomicReference<Object>(root));
+        root.add(java.time.LocalDate.of(2020, 1, 1));
+        List<Object> copy = ObjectUtil.deepCopy(root);
+        builder.append("!");
+
+        List<Object> fixed = (List<Object>) copy.get(0);
+        Assert.assertEquals("sb", fixed.get(1).toString());
+        fixed.set(0, "b");
+        Assert.assertEquals("a", ((List<Object>) root.get(0)).get(0));
+        try {
+            fixed.add("c");
+            Assert.fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        List<Object> unmodifiable = (List<Object>) copy.get(1);
+        // 同一个StringBuilder在拷贝结果中只有一个拷贝
+        Assert.assertSame(fixed.get(1), unmodifiable.get(0));
+        try {
+            unmodifiable.add("c");
+            Assert.fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        SortedSet<String> sortedCopy = (SortedSet<String>) copy.get(2);
+        Assert.assertEquals("y", sortedCopy.first());
+        try {
+            sortedCopy.add("z");
+            Assert.fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        Map<String, Object> synchronizedCopy = (Map<String, Object>) copy.get(3);
+        Assert.assertSame(fixed.get(1), synchronizedCopy.get("k"));
+        synchronizedCopy.put("n", 1);
+        Assert.assertEquals(1, ((Map<?, ?>) root.get(3)).size());
+        Assert.assertNotSame(root.get(4), copy.get(4));
+        Assert.assertEquals(3, ((java.util.concurrent.atomic.AtomicInteger) copy.get(4)).get());
+        Assert.assertSame(copy, ((java.util.concurrent.atomic.AtomicReference<Object>) copy.get(5)).get());
+        Assert.assertSame(root.get(6), copy.get(6));
+
+        // 无法拷贝的JDK对象不会被共享
+        for (Object unsupported : new Object[]{new java.util.Random(), new java.util.concurrent.ArrayBlockingQueue<>(1),
+                Collections.checkedList(new ArrayList<>(), String.class)}) {
+            try {
+                ObjectUtil.deepCopy(Collections.singletonList(unsupported));
+                Assert.fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void asMap() {
+        C c = new C();
+        ((A) c).a = "a";
+        Map<String, Object> map = ObjectUtil.asMap(c);
+        Assert.assertEquals("a", map.get("a"));
+        Assert.assertEquals(0, map.get("b"));
+        Assert.assertEquals("a", map.put("a", "b"));
+        Assert.assertEquals("b", c.getA());
+        Assert.assertTrue(map.containsKey("o"));
+        Assert.assertFalse(map.containsKey("x"));
+        Assert.assertEquals(map.size(), map.entrySet().size());
+        Assert.assertEquals(new HashMap<>(map), map);
+        try {
+            map.put("x", 1);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        // 内部类的外部实例引用不是属性
+        Assert.assertEquals(Collections.singleton("i"), ObjectUtil.asMap(new Inner()).keySet());
+    }
+
+    @Test
+    public void convertCopy() {
+        Src src = new Src();
+        src.n = "12";
+        src.d = 3.7;
+        src.l = 5L;
+        src.boxed = 7;
+        src.id = "00000000-0000-0000-0000-000000000001";
+        Dst dst = new Dst();
+        dst.boxed = -1;
+        ObjectUtil.copy(src, dst);
+        Assert.assertEquals(12, dst.n);
+        Assert.assertEquals(3, dst.d);
+        Assert.assertEquals("5", dst.l);
+        Assert.assertEquals(7L, dst.boxed);
+        Assert.assertNull(dst.id);
+
+        // 无法解析的值被跳过
+        src.n = "abc";
+        dst.n = 1;
+        ObjectUtil.copy(src, dst);
+        Assert.assertEquals(1, dst.n);
+
+        // 超出范围的值被跳过
+        src.d = 1e20;
+        ObjectUtil.copy(src, dst);
+        Assert.assertEquals(3, dst.d);
+
+        CopyPlan plan = ObjectUtil.getCopyPlan(Src.class, Dst.class);
+        CopyPlan direct = ObjectUtil.getCopyPlan(Src.class, Src.class);
+        ConvertUtil.register(String.class, java.util.UUID.class, java.util.UUID::fromString);
+        try {
+            Assert.assertNotSame(plan, ObjectUtil.getCopyPlan(Src.class, Dst.class));
+            // 不需要转换器的计划不会重建
+            Assert.assertSame(direct, ObjectUtil.getCopyPlan(Src.class, Src.class));
+            ObjectUtil.copy(src, dst);
+            Assert.assertEquals(1L, dst.id.getLeastSignificantBits());
+        } finally {
+            ConvertUtil.unregister(String.class, java.util.UUID.class);
+        }
+        Assert.assertEquals(Integer.valueOf(42), ConvertUtil.convert(" 42 ", Integer.class));
+        Assert.assertNull(ConvertUtil.convert(Double.NaN, java.math.BigDecimal.class));
+        Assert.assertNull(ConvertUtil.convert(300L, Byte.class));
+        Assert.assertNull(ConvertUtil.convert(1e20, Integer.class));
+        Assert.assertNull(ConvertUtil.convert(1e300, Float.class));
+        Assert.assertEquals(Byte.valueOf((byte) -128), ConvertUtil.convert(-128.5, Byte.class));
+        Assert.assertEquals(Long.valueOf(Long.MIN_VALUE), ConvertUtil.convert((double) Long.MIN_VALUE, Long.class));
+        Assert.assertNull(ConvertUtil.convert(java.math.BigInteger.ONE.shiftLeft(63), Long.class));
+    }
+
+    @Test
+    public void compareByFields() {
+        B x = new B();
+        x.a = "a";
+        x.b = Double.NaN;
+        x.ints = new int[]{1, 2};
+        B y = new B();
+        y.a = "a";
+        y.b = Double.NaN;
+        y.ints = new int[]{1, 2};
+        Assert.assertTrue(ObjectUtil.equalsByFields(x, y));
+        Assert.assertEquals(ObjectUtil.hashByFields(x), ObjectUtil.hashByFields(y));
+        Assert.assertTrue(ObjectUtil.diff(x, y).isEmpty());
+        Assert.assertFalse(ObjectUtil.equalsByFields(x, new A()));
+
+        y.c = true;
+        y.ints[1] = 3;
+        ChangeSet changes = ObjectUtil.diff(x, y);
+        Assert.assertFalse(ObjectUtil.equalsByFields(x, y));
+        Assert.assertEquals(Arrays.asList("c", "ints"), changes.getChangedNames());
+        int c = ObjectUtil.getComparePlan(B.class).size();
+        for (int i = 0; i < c; i++) {
+            if ("c".equals(ObjectUtil.getComparePlan(B.class).getName(i))) {
+                Assert.assertEquals(false, changes.getOldValue(i));
+                Assert.assertEquals(true, changes.getNewValue(i));
+            }
+        }
+    }
+
+    @Test
+    public void properties() throws Exception {
+        Assert.assertEquals(Bean.class.getMethod("isActive"), MethodUtil.getGetter(Bean.class, "active"));
+        Assert.assertEquals(Bean.class.getMethod("setActive", boolean.class), MethodUtil.getSetter(Bean.class, "active"));
+        Assert.assertEquals(String.class, MethodUtil.getGetter(SubBean.class, "value").getReturnType());
+        Assert.assertFalse(MethodUtil.getGetter(SubBean.class, "value").isBridge());
+        Assert.assertNull(MethodUtil.getGetter(Bean.class, "missing"));
+
+        Map<String, PropertyDescriptor> properties = MethodUtil.getProperties(SubBean.class);
+        Assert.assertEquals(Arrays.asList("active", "value", "URL", "class"), new ArrayList<>(properties.keySet()));
+        PropertyDescriptor url = properties.get("URL");
+        Assert.assertNull(url.getField());
+        Assert.assertNull(url.getSetter());
+        Assert.assertEquals(String.class, url.getType());
+    }
+
+    @Test
+    public void methodResolution() throws Exception {
+        Assert.assertEquals(Overload.class.getMethod("f", int.class), MethodUtil.getMethod(Overload.class, "f", int.class));
+        Assert.assertEquals(Overload.class.getMethod("f", Integer.class), MethodUtil.getMethod(Overload.class, "f", Integer.class));
+        // 宽化与子类参数
+        Assert.assertEquals(Overload.class.getMethod("g", long.class), MethodUtil.getMethod(Overload.class, "g", int.class));
+        Assert.assertEquals(Overload.class.getMethod("h", CharSequence.class), MethodUtil.getMethod(Overload.class, "h", String.class));
+        Assert.assertEquals(Overload.class.getMethod("h", Object.class), MethodUtil.getMethod(Overload.class, "h", Integer.class));
+        Assert.assertEquals(Overload.class.getMethod("v", String.class, String[].class), MethodUtil.getMethod(Overload.class, "v", String.class));
+        Assert.assertNull(MethodUtil.getMethod(Overload.class, "g", String.class));
+        // 最后一个参数是数组的方法可以省略该参数，解析与执行使用相同的规则
+        Method omitted = MethodUtil.getMethod(Overload.class, "a", String.class);
+        Assert.assertArrayEquals(new Class<?>[]{String.class, String[].class}, omitted.getParameterTypes());
+        Assert.assertEquals("s", MethodUtil.invoke(new Overload(), "a", "s"));
+        Assert.assertNull(MethodUtil.getMethod(Overload.class, "missing", String.class));
+        Assert.assertSame(MethodUtil.getMethod(Overload.class, "g", int.class), MethodUtil.getMethod(Overload.class, "g", int.class));
+        Assert.assertEquals("cs", MethodUtil.invoke(new Overload(), "h", "s"));
+    }
+
+    @Test
+    public void invokeByName() throws Exception {
+        Assert.assertEquals(false, MethodUtil.invoke("abc", "equals", (Object) null));
+        Assert.assertEquals(3, MethodUtil.invoke("abc", "length"));
+        try {
+            MethodUtil.invoke("abc", "missing", 1);
+            Assert.fail();
+        } catch (NoSuchMethodException ignored) {
+        }
+    }
+
+    @Test
+    public void invoker() throws Exception {
+        Method format = String.class.getMethod("format", String.class, Object[].class);
+        MethodInvoker invoker = MethodUtil.invoker(format);
+        Assert.assertSame(invoker, MethodUtil.invoker(format));
+        Assert.assertEquals("a1", invoker.invoke(null, "a%s", new Object[]{1}));
+        Assert.assertEquals("a", invoker.invoke(null, "a"));
+        Assert.assertEquals("BC", MethodUtil.invoke("bc", String.class.getMethod("toUpperCase")));
+        // 与Method.invoke一致，null参数数组视为没有参数
+        Assert.assertEquals("BC", MethodUtil.invoker(String.class.getMethod("toUpperCase")).invoke("bc", (Object[]) null));
+        Assert.assertEquals("", ReflectUtil.factory(String.class).newInstance((Object[]) null));
+        // 参数不匹配抛出IllegalArgumentException，方法本身抛出的异常才包装成InvocationTargetException
+        Method charAt = String.class.getMethod("charAt", int.class);
+        Assert.assertEquals('b', MethodUtil.invoke("abc", charAt, (short) 1));
+        for (Object param : new Object[]{"str", null, 1L}) {
+            try {
+                MethodUtil.invoke("abc", charAt, param);
+                Assert.fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        try {
+            MethodUtil.invoke("abc", charAt, 10);
+            Assert.fail();
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof IndexOutOfBoundsException);
+        }
+    }
+
+    @Test
+    public void newInstance() throws Exception {
+        Assert.assertNotNull(ReflectUtil.newInstance(A.class));
+        Assert.assertEquals("abc", ReflectUtil.newInstance(String.class, "abc"));
+        Assert.assertEquals(new StringBuilder("abc").toString(), ReflectUtil.newInstance(StringBuilder.class, "abc").toString());
+        Assert.assertSame(ReflectUtil.factory(A.class), ReflectUtil.factory(A.class));
+        Assert.assertNotNull(ReflectUtil.factory(A.class).get());
+        // 只使用公开构造器，深拷贝仍可使用非公开的无参构造器
+        Assert.assertNull(ReflectUtil.factory(H.class));
+        try {
+            ReflectUtil.newInstance(H.class);
+            Assert.fail();
+        } catch (InstantiationException ignored) {
+        }
+        H h = ReflectUtil.newInstance(H.class, "h");
+        Assert.assertEquals("h", h.h);
+        Assert.assertEquals("h", ObjectUtil.deepCopy(h).h);
+        try {
+            ReflectUtil.factory(StringBuilder.class, String.class).newInstance(1);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        // 缓存键复制参数类型数组，调用方修改数组不影响缓存
+        Class<?>[] types = {String.class};
+        Assert.assertNotNull(ReflectUtil.factory(H.class, types));
+        types[0] = Integer.class;
+        Assert.assertNull(ReflectUtil.factory(H.class, types));
+        Assert.assertNotNull(ReflectUtil.factory(H.class, String.class));
+    }
+
+    @Test
+    public void lambda() throws Exception {
+        SFunction<A, String> getter = A::getA;
+        Field field = FieldUtil.getFieldFromLambda(getter);
+        Assert.assertEquals(A.class.getDeclaredField("a"), field);
+        Assert.assertSame(field, FieldUtil.getFieldFromLambda(getter));
+        Assert.assertEquals(A.class.getMethod("getA"), MethodUtil.getMethodFromLambda(A::getA));
+    }
+
+    @Test
+    public void signature() throws Exception {
+        Map<String, ClassGrc> genericsMap = new HashMap<>();
+        genericsMap.put("T", new ClassGrc(String.class));
+        ClassGrc map = SignatureUtil.parseClassBySignature("Ljava/util/Map<TT;Ljava/util/List<+Ljava/lang/Number;>;>;", genericsMap);
+        Assert.assertEquals(Map.class, map.getTarget());
+        Assert.assertEquals(String.class, map.getGenericsInfos()[0].getTarget());
+        Assert.assertEquals(List.class, map.getGenericsInfos()[1].getTarget());
+        Assert.assertEquals(Number.class, map.getGenericsInfos()[1].getGenericsInfos()[0].getTarget());
+        Assert.assertEquals(String[].class, SignatureUtil.parseClassBySignature("[TT;", genericsMap).getTarget());
+        Assert.assertEquals(Map.Entry.class, SignatureUtil.parseClassBySignature("Ljava/util/Map<TT;TT;>.Entry<TT;TT;>;", genericsMap).getTarget());
+        Assert.assertEquals(Arrays.asList("Ljava/lang/String", "I", "TT", "[J", "Ljava/util/List<*>"),
+                SignatureUtil.splitSignature("Ljava/lang/String;ITT;[JLjava/util/List<*>;"));
+
+        MethodGrc methodGrc = SignatureUtil.parseMethodBySignature(Object.class.getMethod("toString"),
+                "<E::Ljava/lang/Comparable<TE;>;>(ITE;)Ljava/util/List<TE;>;^Ljava/io/IOException;", genericsMap);
+        Assert.assertEquals(List.class, methodGrc.getResult().getTarget());
+        Assert.assertEquals(Comparable.class, methodGrc.getResult().getGenericsInfos()[0].getTarget());
+        Assert.assertEquals(int.class, methodGrc.getArguments()[0].getTarget());
+        Assert.assertEquals(1, genericsMap.size());
+    }
+
+    @Test
+    public void internedClassGrc() throws Exception {
+        ClassGrc parsed = SignatureUtil.parseClassBySignature("Ljava/util/List<Ljava/lang/String;>;", new HashMap<>());
+        ClassGrc built = new ClassGrc(List.class, new ClassGrc[]{new ClassGrc(String.class)});
+        Assert.assertEquals(built, parsed);
+        Assert.assertEquals(built.hashCode(), parsed.hashCode());
+        Assert.assertSame(parsed, ClassGrc.of(List.class, ClassGrc.of(String.class)));
+        Assert.assertSame(parsed, built.intern());
+        parsed.getGenericsInfos()[0] = null;
+        Assert.assertNotNull(parsed.getGenericsInfo(0));
+    }
+
+    @Test
+    public void actualClass() throws Exception {
+        ActualClass actualClass = ReflectUtil.getActualClass(C.class);
+        Assert.assertSame(actualClass, ReflectUtil.getActualClass(C.class));
+        Assert.assertEquals(String.class, actualClass.getFieldGrc("a").getTarget());
+        Assert.assertNotNull(actualClass.getMethodGrc("getA"));
+        Assert.assertNotNull(actualClass.getMethodGrc("wait"));
+        Assert.assertNotNull(actualClass.getMethodGrc("wait", long.class));
+        Assert.assertTrue(actualClass.getMethodGrcMap().containsKey("equals(Ljava/lang/Object;)"));
+    }
+
+    @Test
+    public void genericsMap() throws Exception {
+        Map<String, ClassGrc> genericsMap = ReflectUtil.getGenericsMap(GrandChild.class);
+        Assert.assertEquals(String.class, genericsMap.get("T").getTarget());
+        Assert.assertSame(genericsMap, ReflectUtil.getGenericsMap(GrandChild.class));
+        Assert.assertEquals(genericsMap, ReflectUtil.getGenericsMap(Child.class));
+    }
+
+    @Test
+    public void typeUseAnnotatedMetadata() throws Exception {
+        // TYPE_USE注解不能出现在生成代码的类字面量与类型转换中
+        ActualClass actualClass = ReflectUtil.getActualClass(RN.class);
+        Assert.assertEquals(String.class, actualClass.getFieldGrc("text").getTarget());
+        Assert.assertEquals(int[].class, actualClass.getFieldGrc("ints").getTarget());
+        Assert.assertEquals(String[].class, actualClass.getFieldGrc("texts").getTarget());
+        Assert.assertEquals(String.class, actualClass.getFieldGrc("list").getGenericsInfo(0).getTarget());
+        RN rn = new RN();
+        FieldUtil.setFieldValue(rn, "ints", new int[]{1});
+        FieldUtil.setFieldValue(rn, "any", "a");
+        Assert.assertArrayEquals(new int[]{1}, rn.ints);
+        Assert.assertEquals("a", rn.any);
+    }
+
+    @Test
+    public void generatedMetadata() throws Exception {
+        ActualClass actualClass = ReflectUtil.getActualClass(RS.class);
+        ClassGrc names = SignatureUtil.parseClassBySignature("Ljava/util/List<Ljava/lang/String;>;", new HashMap<>());
+        Assert.assertArrayEquals(names.getGenericsInfos(), ReflectUtil.getActualClass(R.class).getFieldGrc("names").getGenericsInfos());
+        Assert.assertEquals(Integer.class, actualClass.getFieldGrc("value").getTarget());
+        MethodGrc wrap = actualClass.getMethodGrc("wrap", Number.class, Object.class);
+        Assert.assertEquals(Number.class, wrap.getResult().getGenericsInfo(0).getTarget());
+        Assert.assertEquals(Integer.class, wrap.getArguments()[1].getTarget());
+
+        R<Integer> source = new R<>();
+        source.names = Arrays.asList("a", "b");
+        source.value = 1;
+        FieldUtil.setFieldValue(source, "count", 2);
+        Assert.assertEquals(2, FieldUtil.getFieldValue(source, "count"));
+        R<Integer> target = new R<>();
+        ObjectUtil.copy(source, target);
+        Assert.assertSame(source.names, target.names);
+        Assert.assertEquals(2, target.count);
+        try {
+            FieldUtil.setFieldValue(source, "count", null);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        // 生成的表按宽化规则写入基础类型属性
+        FieldUtil.setFieldValue(source, "count", (short) 3);
+        Assert.assertEquals(3, source.count);
+        ClassMetadata metadata = (ClassMetadata) Class.forName(R.class.getName() + ClassMetadata.SUFFIX).newInstance();
+        int count = metadata.indexOf("count");
+        metadata.set(source, count, 'a');
+        Assert.assertEquals('a', source.count);
+        for (Object value : new Object[]{null, 1L, "1"}) {
+            try {
+                metadata.set(source, count, value);
+                Assert.fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+
+        // 局部类无法生成元数据表，仍然通过反射读写
+        @Reflective
+        class RL {
+            int l;
+        }
+        RL local = new RL();
+        FieldUtil.setFieldValue(local, "l", 3);
+        Assert.assertEquals(3, FieldUtil.getFieldValue(local, "l"));
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        Path file = Files.createTempFile("reflection-kit", ".snapshot");
+        try {
+            SnapshotUtil.save(file, Arrays.asList(GrandChild.class, RS.class));
+            // 已构建的类不会被覆盖
+            Assert.assertEquals(0, SnapshotUtil.load(file));
+            byte[] saved = Files.readAllBytes(file);
+            // 截断、负数与过大的数量都报告为文件损坏
+            java.nio.ByteBuffer negative = java.nio.ByteBuffer.allocate(8).putInt(0x524B5301).putInt(-1);
+            java.nio.ByteBuffer huge = java.nio.ByteBuffer.allocate(8).putInt(0x524B5301).putInt(Integer.MAX_VALUE);
+            for (byte[] corrupted : new byte[][]{{1, 2, 3}, Arrays.copyOf(saved, saved.length - 3), negative.array(), huge.array()}) {
+                Files.write(file, corrupted);
+                try {
+                    SnapshotUtil.load(file);
+                    Assert.fail();
+                } catch (java.io.IOException ignored) {
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void warmup() throws Exception {
+        class W {
+            private int x;
+
+            public int get(String s, int[] a) {
+                return x;
+            }
+        }
+        Path file = Files.createTempFile("reflection-kit", ".warmup");
+        try {
+            WarmupUtil.startRecording();
+            ReflectUtil.getActualClass(W.class);
+            FieldUtil.accessor(W.class.getDeclaredField("x"));
+            MethodUtil.invoker(W.class.getMethod("get", String.class, int[].class));
+            ObjectUtil.getCopyPlan(W.class, P.class);
+            Assert.assertEquals(4, WarmupUtil.save(file));
+            WarmupUtil.stopRecording();
+            Assert.assertFalse(WarmupUtil.isRecording());
+
+            List<String> lines = new ArrayList<>(Files.readAllLines(file));
+            lines.add("field\tmissing.Type\tx");
+            Files.write(file, lines);
+            Assert.assertEquals(4, WarmupUtil.replay(file).get(10, TimeUnit.SECONDS).intValue());
+            try {
+                WarmupUtil.replay(file, W.class.getClassLoader(), command -> {
+                    throw new java.util.concurrent.RejectedExecutionException();
+                });
+                Assert.fail();
+            } catch (java.util.concurrent.RejectedExecutionException ignored) {
+            }
+        } finally {
+            WarmupUtil.stopRecording();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void metrics() throws Exception {
+        CountingMetrics metrics = new CountingMetrics();
+        MetricsUtil.setMetrics(metrics);
+        try {
+            ReflectUtil.getActualClass(M.class);
+            ReflectUtil.getActualClass(M.class);
+            Assert.assertEquals(1, metrics.getResolveCount(Resolution.ACTUAL_CLASS));
+            Assert.assertEquals(1, metrics.getMissCount(CacheRegion.ACTUAL_CLASS));
+            Assert.assertEquals(1, metrics.getHitCount(CacheRegion.ACTUAL_CLASS));
+
+            ObjectUtil.copy(new M(), new M());
+            ObjectUtil.copy(new M(), new M());
+            Assert.assertEquals(1, metrics.getCopyPlanCount());
+            Assert.assertEquals(1, metrics.getHitCount(CacheRegion.COPY_PLAN));
+
+            // 属性名索引每个类只构建一次，之后的查找包括不存在的属性都不再解析
+            Assert.assertNotNull(FieldUtil.getField(MF.class, "f"));
+            Assert.assertEquals(1, metrics.getResolveCount(Resolution.FIELD));
+            Assert.assertNotNull(FieldUtil.getField(MF.class, "f"));
+            Assert.assertNull(FieldUtil.getField(MF.class, "missing"));
+            Assert.assertEquals(1, metrics.getResolveCount(Resolution.FIELD));
+        } finally {
+            MetricsUtil.setMetrics(null);
+        }
+        Assert.assertFalse(MetricsUtil.isEnabled());
     }
 
     @Test
@@ -47,11 +693,70 @@ public class SimpleTest {
         System.out.println(Arrays.toString(stopwatch.getIntervalLine(TimeUnit.MICROSECONDS).toArray()));
     }
 
+    @Reflective
+    public static class R<T> {
+        List<String> names;
+        T value;
+        int count;
+
+        public <E extends Number> List<E> wrap(E e, T t) {
+            return null;
+        }
+    }
+
+    public static class RS extends R<Integer> {
+    }
+
+    @Target(ElementType.TYPE_USE)
+    @Retention(RetentionPolicy.CLASS)
+    public @interface Nullable {
+    }
+
+    @Reflective
+    public static class RN {
+        @Nullable String text;
+        @Nullable int[] ints;
+        String @Nullable [] texts;
+        List<@Nullable String> list;
+        Object any;
+    }
+
+    public static class Node {
+        private Node next;
+    }
+
+    public static class M {
+        private int m;
+    }
+
+    public class Inner {
+        private String i;
+    }
+
+    public static class MF {
+        private int f;
+    }
+
+    public static class H {
+        private String h;
+
+        private H() {
+        }
+
+        public H(String h) {
+            this.h = h;
+        }
+    }
+
     public static class A {
         private String a;
         private int b;
         private char d;
         private B o;
+
+        public String getA() {
+            return a;
+        }
     }
 
     public static class B {
@@ -59,9 +764,120 @@ public class SimpleTest {
         private double b;
         private boolean c;
         private A o;
+        private List<Object> list;
+        private int[] ints;
+        private TreeSet<String> sorted;
+    }
+
+    public static class Src {
+        private String n;
+        private double d;
+        private long l;
+        private Integer boxed;
+        private String id;
+    }
+
+    public static class Dst {
+        private int n;
+        private int d;
+        private String l;
+        private long boxed;
+        private java.util.UUID id;
+    }
+
+    public static class Overload {
+
+        public String f(int i) {
+            return "int";
+        }
+
+        public String f(Integer i) {
+            return "Integer";
+        }
+
+        public String g(long l) {
+            return "long";
+        }
+
+        public String g(double d) {
+            return "double";
+        }
+
+        public String h(Object o) {
+            return "o";
+        }
+
+        public String h(CharSequence cs) {
+            return "cs";
+        }
+
+        public String v(String s, String... rest) {
+            return s;
+        }
+
+        public String a(String s, String[] rest) {
+            return s;
+        }
+    }
+
+    public static class Bean {
+        private boolean active;
+        private Object value;
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+    }
+
+    public static class SubBean extends Bean {
+
+        @Override
+        public String getValue() {
+            return (String) super.getValue();
+        }
+
+        public String getURL() {
+            return "";
+        }
     }
 
     public static final class C extends A {
 
     }
+
+    public static class Base<T> {
+        private T value;
+    }
+
+    public static class Child extends Base<String> {
+    }
+
+    public static class GrandChild extends Child {
+    }
+
+    public static class P {
+        private int a;
+        private long b;
+        private double c;
+        private char d;
+    }
+
+    public static class Q {
+        private int a;
+        private long b;
+        private double c;
+        private int d;
+    }
 }